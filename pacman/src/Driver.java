@@ -1,16 +1,21 @@
 import mainApp.TorusVerseApp;
 
 import javax.swing.*;
+import java.util.Arrays;
 
 public class Driver {
+    private static final String BATCH_OPTION = "--batch";
+
     /**
      * Starting point
-     * @param args the command line arguments
+     * @param args the command line arguments, "--batch dir1 [dir2 ...]" to check and auto-play many maps at once
      */
 
     public static void main(String args[]) {
         try {
-            if (args.length > 0) {
+            if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+                new TorusVerseApp(Arrays.asList(args).subList(1, args.length));
+            } else if (args.length > 0) {
                 new TorusVerseApp(args[0]);
             } else {
                 new TorusVerseApp();
@@ -0,0 +1,39 @@
+package TestPrograms;
+
+import game.Game;
+import game.Maps.BinaryMapFile;
+import game.Maps.EditorMap;
+import game.Simulation.HeadlessLevel;
+import game.Simulation.SimulationResult;
+import game.utility.PropertiesLoader;
+
+import java.io.File;
+import java.util.Properties;
+
+/**
+ * Runs every map of a folder in a headless level - not part of the required
+ * functionalities for this project.
+ */
+public class TestHeadlessLevel {
+    private static final int MAX_CYCLES = 100_000;
+
+    public static void main(String[] args) {
+        String dir = args.length > 0 ? args[0] : "pacman/maps";
+        File[] files = new File(dir).listFiles(
+                (d, name) -> name.endsWith(".xml") || name.endsWith("." + BinaryMapFile.EXTENSION));
+        if (files == null) {
+            System.out.println("Not a folder: " + dir);
+            return;
+        }
+
+        for (File file : files) {
+            try {
+                Properties properties = PropertiesLoader.loadPropertiesFile(Game.DEFAULT_PROPERTIES_PATH);
+                SimulationResult result = new HeadlessLevel(properties, new EditorMap(file.getPath())).run(MAX_CYCLES);
+                System.out.println(file.getName() + ": " + result);
+            } catch (Exception e) {
+                System.out.println(file.getName() + ": failed - " + e);
+            }
+        }
+    }
+}
@@ -15,4 +15,5 @@ public class ErrorMessageBody {
     public static final String LEVEL_C_LESS_TWO_GOLD_PILL  = " - less than 2 Gold and Pill";
     public static final String LEVEL_D_GOLD_NOT_ACC = " - Gold not accessible: ";
     public static final String LEVEL_D_PILL_NOT_ACC = " - Pill not accessible: ";
+    public static final String LEVEL_TOO_LARGE = " - too large to check: ";
 }
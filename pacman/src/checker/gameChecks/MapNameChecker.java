@@ -2,10 +2,8 @@ package checker.gameChecks;
 
 import checker.Checker;
 import checker.ErrorMessageBody;
-import org.jdom.JDOMException;
-import org.jdom.input.SAXBuilder;
+import game.Maps.MapFileCache;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
@@ -50,16 +48,14 @@ public class MapNameChecker extends Checker {
     }
 
     /**
-     * Checks if the given file is a valid XML file
+     * Checks if the given file is a valid XML file (or binary map file).
+     * The file is parsed into the MapFileCache, so that it is not parsed again when loaded.
      * @param path: the path of the file to be checked
-     * @return true if it's a valid XML file, false otherwise.
-     * @throws JDOMException
-     * @throws IOException
+     * @return true if it's a valid map file, false otherwise.
      */
-    private boolean isValidXML(Path path) {
-        SAXBuilder builder = new SAXBuilder();
+    private boolean isValidMapFile(Path path) {
         try {
-            builder.build(path.toFile());
+            MapFileCache.getInstance().parse(path.toString());
         } catch (Exception ex) {
             return false;
         }
@@ -85,22 +81,29 @@ public class MapNameChecker extends Checker {
      * @return
      */
     private boolean filterFilenames(Path dir) {
-        // Create a DirectoryStream.Filter to filter only valid map files
+        // Create a DirectoryStream.Filter to filter the candidate map files by name first
         DirectoryStream.Filter<Path> filter = file -> {
             String fileName = file.getFileName().toString();
-            return Files.isRegularFile(file) && isValidXML(file) && Character.isDigit(fileName.charAt(0));
+            return Files.isRegularFile(file) && Character.isDigit(fileName.charAt(0));
         };
 
-        // Iterate through the directory and extract .xml file names
+        // Iterate through the directory and extract the map file names
+        ArrayList<Path> candidates = new ArrayList<>();
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, filter)) {
             for (Path file : stream) {
-                filenameStore.add(file.getFileName().toString());
+                candidates.add(file);
             }
         } catch (IOException e) {
             e.printStackTrace();
             addError(ErrorMessageBody.GAME_FAIL_IO);
             return false;
         }
+
+        // then parse them all in parallel, keeping the directory's order
+        candidates.parallelStream()
+                  .filter(this::isValidMapFile)
+                  .map(file -> file.getFileName().toString())
+                  .forEachOrdered(filenameStore::add);
         return true;
     }
 
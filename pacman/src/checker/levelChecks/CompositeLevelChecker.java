@@ -1,14 +1,19 @@
 package checker.levelChecks;
 
+import checker.ErrorMessageBody;
 import game.Maps.EditorMap;
+import game.utility.HeapBudget;
 
 import java.util.ArrayList;
 
 /**
  * A composite checker for overall level checking.
+ * The map is scanned once, each cell being given to all the individual checkers in turn.
  */
 public class CompositeLevelChecker extends LevelChecker {
-    private final ArrayList<LevelChecker> individualLevelCheckers = new ArrayList<>();
+    // the checkers keep at most a few bits per cell (e.g. the walls, items and reached cells of the flood fill)
+    public static final int CHECK_BYTES_PER_CELL = 1;
+    private final ArrayList<SinglePassLevelChecker> individualLevelCheckers = new ArrayList<>();
     // this leaf checker will be treated separately
     private GoldPillAccessibilityChecker goldPillAccessibilityChecker;
 
@@ -16,12 +21,20 @@ public class CompositeLevelChecker extends LevelChecker {
      * Constructs a CompositeLevelChecker.
      */
     public CompositeLevelChecker() {
-        individualLevelCheckers.add(new PacStartChecker());
-        individualLevelCheckers.add(new PortalPairChecker());
-        individualLevelCheckers.add(new NumGoldPillChecker());
+        addLevelChecker(new PacStartChecker());
+        addLevelChecker(new PortalPairChecker());
+        addLevelChecker(new NumGoldPillChecker());
         goldPillAccessibilityChecker = new GoldPillAccessibilityChecker();
     }
 
+    /**
+     * Adds an individual checker, run in the same scan of the map as the others.
+     * @param levelChecker: the checker to be added
+     */
+    public void addLevelChecker(SinglePassLevelChecker levelChecker) {
+        individualLevelCheckers.add(levelChecker);
+    }
+
     /**
      * Checks if a level is valid based on a customizable sequence of maps
      * @return true if all tests are passed;
@@ -29,10 +42,36 @@ public class CompositeLevelChecker extends LevelChecker {
      */
     @Override
     public boolean check(EditorMap map) {
+        collectErrors(map);
+        // report errors
+        return inspectAndLogErrors();
+    }
+
+    /**
+     * Runs all the level checks and gathers their errors, without logging them
+     * (e.g. when checking many levels at once).
+     * @param map: an EditorMap (corresponding to a level) to be checked.
+     * @return the ArrayList of error messages, empty if all checks are passed.
+     */
+    public ArrayList<String> collectErrors(EditorMap map) {
+        final long cellsCount = (long) map.getHorizontalCellsCount() * map.getVerticalCellsCount();
+        if (!HeapBudget.fits(cellsCount, CHECK_BYTES_PER_CELL)) {
+            addError(formatLogHeader(map.getFileName()) + ErrorMessageBody.LEVEL_TOO_LARGE
+                    + HeapBudget.describe(cellsCount, CHECK_BYTES_PER_CELL));
+            return getErrors();
+        }
+
+        // a single scan for all the checkers
+        ArrayList<SinglePassLevelChecker> checkers = new ArrayList<>(individualLevelCheckers);
+        checkers.add(goldPillAccessibilityChecker);
+        for (SinglePassLevelChecker check : checkers)
+            check.startScan(map);
+        SinglePassLevelChecker.scan(map, checkers.toArray(new SinglePassLevelChecker[0]));
+
         boolean pacStartFlag = true;
         boolean portalPairFlag = true;
-        for (LevelChecker check : individualLevelCheckers) {
-            boolean flag = check.check(map);
+        for (SinglePassLevelChecker check : individualLevelCheckers) {
+            boolean flag = check.endScan(map);
             if (check instanceof PacStartChecker)
                 pacStartFlag = flag;
             else if (check instanceof PortalPairChecker)
@@ -43,7 +82,7 @@ public class CompositeLevelChecker extends LevelChecker {
         // 1. The PacActor's start location is valid
         // 2. The portals are valid (as per the spec)
         if (pacStartFlag && portalPairFlag) {
-            goldPillAccessibilityChecker.check(map);
+            goldPillAccessibilityChecker.endScan(map);
         }
 
         // gather the errors
@@ -52,7 +91,6 @@ public class CompositeLevelChecker extends LevelChecker {
         }
 
         addErrors(goldPillAccessibilityChecker.getErrors());
-        // report errors
-        return inspectAndLogErrors();
+        return getErrors();
     }
 }
@@ -2,52 +2,91 @@ package checker.levelChecks;
 
 import ch.aplu.jgamegrid.Location;
 import checker.ErrorMessageBody;
+import game.ActorType;
 import game.CharacterType;
 import game.Items.CellType;
 import game.Maps.EditorMap;
+import game.Workers.LocationIndexConverter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
 
 /**
  * Checks if all gold and pills are accessible in a level.
  * Should only be run after PacStartChecker and NumGoldPillChecker have checked.
+ *
+ * The flood fill runs over the scanned cells rather than over a NavGraph, so that a map too large
+ * for the heap (e.g. a memory-mapped one) can be checked: the walls and the reached cells take a bit per cell,
+ * the portal partners are looked up in a map (there are few portals), and the work stack
+ * holds a seed per run of cells rather than a cell, as the cells are filled a row span at a time.
  */
-public class GoldPillAccessibilityChecker extends LevelChecker {
+public class GoldPillAccessibilityChecker extends SinglePassLevelChecker {
     private boolean flag = true;
+    // the gold and pill cells, by index (so that they are in the scan's order)
+    private final BitSet golds = new BitSet();
+    private final BitSet pills = new BitSet();
+    private final BitSet walls = new BitSet();
+    // the cells of each portal type, in the scan's order
+    private final EnumMap<CellType, ArrayList<Integer>> portalCells = new EnumMap<>(CellType.class);
+    private int pacIndex = -1;
+    private int pacCount = 0;
+    private int width = 0;
+    private int height = 0;
+
+    /** {@inheritDoc} */
+    @Override
+    protected void startScan(EditorMap map) {
+        flag = true;
+        golds.clear();
+        pills.clear();
+        walls.clear();
+        portalCells.clear();
+        pacIndex = -1;
+        pacCount = 0;
+        width = map.getHorizontalCellsCount();
+        height = map.getVerticalCellsCount();
+    }
 
     /**
+     * Extracts the golds, pills, walls, portals and pac locations.
      * {@inheritDoc}
      */
     @Override
-    public boolean check(EditorMap map) {
-        ArrayList<Location> golds = new ArrayList<>();
-        ArrayList<Location> pills = new ArrayList<>();
-        Location pacLocation = null;
-        // extract all golds, pills, and pac locations
-        for (int i = 0; i < map.getVerticalCellsCount(); i++) {
-            for (int j = 0; j < map.getHorizontalCellsCount(); j++) {
-                Location loc = new Location(j, i);
-                if (map.getTypeAt(loc) == CellType.GOLD) {
-                    golds.add(loc);
-                } else if (map.getTypeAt(loc) == CellType.PILL) {
-                    pills.add(loc);
-                } else if (map.getTypeAt(loc) == CharacterType.PACMAN) {
-                    // We would use PacStartChecker in advance, so there shouldn't be multiple start Location
-                    // But for safety, still check this here (since we are already in a loop)
-                    if (pacLocation != null) { // second occurrence
-                        return false;
-                    }
-                    pacLocation = loc;
-                }
+    protected void visitRow(int y, ActorType[] row) {
+        final int rowStart = y * width;
+        for (int x = 0; x < row.length; x++) {
+            ActorType type = row[x];
+            if (type == CellType.GOLD) {
+                golds.set(rowStart + x);
+            } else if (type == CellType.PILL) {
+                pills.set(rowStart + x);
+            } else if (type == CellType.WALL) {
+                walls.set(rowStart + x);
+            } else if (type instanceof CellType && ((CellType) type).isPortal()) {
+                portalCells.computeIfAbsent((CellType) type, k -> new ArrayList<>()).add(rowStart + x);
+            } else if (type == CharacterType.PACMAN) {
+                if (pacCount++ == 0)
+                    pacIndex = rowStart + x;
             }
         }
+    }
 
-        if (pacLocation == null) { // no valid PacActor starting point
+    /** {@inheritDoc} */
+    @Override
+    protected boolean endScan(EditorMap map) {
+        // We would use PacStartChecker in advance, so there shouldn't be multiple start Location
+        // But for safety, still check this here
+        if (pacCount != 1) { // no valid PacActor starting point
             return false;
         }
 
-        checkItemErrors(golds, ErrorMessageBody.LEVEL_D_GOLD_NOT_ACC, map, pacLocation);
-        checkItemErrors(pills, ErrorMessageBody.LEVEL_D_PILL_NOT_ACC, map, pacLocation);
+        // a single flood fill from the PacActor, then each item is looked up
+        BitSet reachable = findReachableCells(pacIndex);
+        checkItemErrors(golds, reachable, ErrorMessageBody.LEVEL_D_GOLD_NOT_ACC, map);
+        checkItemErrors(pills, reachable, ErrorMessageBody.LEVEL_D_PILL_NOT_ACC, map);
 
         return flag;
     }
@@ -55,26 +94,174 @@ public class GoldPillAccessibilityChecker extends LevelChecker {
     /**
      * Checks the validity (accessibility) of the item locations,
      * and adds the relevant error message if required.
-     * @param originalItems: an ArrayList of the original item locations
+     * @param originalItems: the original item cells, by index
+     * @param reachable: the cells reachable from the initial location of the PacPlayer, by index
      * @param errorMessageBody: error message to be added
      * @param map: map being checked
-     * @param pacLocation: initial location of the PacPlayer
      */
-    private void checkItemErrors(ArrayList<Location> originalItems,
-                                 String errorMessageBody, EditorMap map,
-                                 Location pacLocation) {
-        ArrayList<Location> errorItems = new ArrayList<>();
+    private void checkItemErrors(BitSet originalItems, BitSet reachable,
+                                 String errorMessageBody, EditorMap map) {
         // pick out the actual error items
-        for (Location loc : originalItems) {
-            // check item's accessibility
-            if (!map.canReach(pacLocation, loc)) {
-                errorItems.add(loc);
-            }
-        }
+        BitSet errorCells = (BitSet) originalItems.clone();
+        errorCells.andNot(reachable);
 
-        if (errorItems.size() > 0) { // failed?
+        if (!errorCells.isEmpty()) { // failed?
             flag = false;
+            LocationIndexConverter indexConverter = new LocationIndexConverter(width);
+            ArrayList<Location> errorItems = new ArrayList<>(errorCells.cardinality());
+            for (int cell = errorCells.nextSetBit(0); cell >= 0; cell = errorCells.nextSetBit(cell + 1))
+                errorItems.add(indexConverter.getLocationByIndex(cell));
             addError(formatLogHeader(map.getFileName()) + errorMessageBody + semicolonLocationStringBuilder(errorItems));
         }
     }
+
+    /**
+     * Finds all the cells reachable from the given cell (itself included), portal jumps included,
+     * with the same moves as the NavGraph: moving onto a portal lands on its partner.
+     * The plain cells are filled a row span at a time, each span seeding the runs of cells above and below it.
+     * @param source: the cell index to start from
+     * @return the reachable cells, by index.
+     */
+    private BitSet findReachableCells(int source) {
+        // the partner of each (paired) portal: the first (in reading order) pairs with the second,
+        // all others with the first
+        HashMap<Integer, Integer> portalPartners = new HashMap<>();
+        for (ArrayList<Integer> cells : portalCells.values()) {
+            if (cells.size() < 2)
+                continue; // unpaired portal -> a plain cell
+            portalPartners.put(cells.get(0), cells.get(1));
+            for (int i = 1; i < cells.size(); i++)
+                portalPartners.put(cells.get(i), cells.get(0));
+        }
+
+        BitSet reached = new BitSet();
+        IntStack seeds = new IntStack();
+        seeds.push(source);
+        while (!seeds.isEmpty()) {
+            final int cell = seeds.pop();
+            if (reached.get(cell))
+                continue;
+            final int x = cell % width;
+            final int y = cell / width;
+
+            if (portalPartners.containsKey(cell)) {
+                // landed on a portal: it is left one move at a time
+                reached.set(cell);
+                enter(x + 1, y, portalPartners, reached, seeds);
+                enter(x, y + 1, portalPartners, reached, seeds);
+                enter(x - 1, y, portalPartners, reached, seeds);
+                enter(x, y - 1, portalPartners, reached, seeds);
+                continue;
+            }
+
+            // the span of plain cells through the cell, in its row
+            final int rowStart = y * width;
+            int left = x;
+            while (left > 0 && isPlain(rowStart + left - 1, portalPartners) && !reached.get(rowStart + left - 1))
+                left--;
+            int right = x;
+            while (right < width - 1 && isPlain(rowStart + right + 1, portalPartners) && !reached.get(rowStart + right + 1))
+                right++;
+            reached.set(rowStart + left, rowStart + right + 1);
+
+            // the span's ends, then the runs of cells above and below it
+            enter(left - 1, y, portalPartners, reached, seeds);
+            enter(right + 1, y, portalPartners, reached, seeds);
+            seedRuns(left, right, y - 1, portalPartners, reached, seeds);
+            seedRuns(left, right, y + 1, portalPartners, reached, seeds);
+        }
+        return reached;
+    }
+
+    /**
+     * Seeds the unreached runs of plain cells of a row, between the given x coordinates,
+     * and the partners of its portals.
+     * @param left: x coordinate of the first cell
+     * @param right: x coordinate of the last cell
+     * @param y: y coordinate of the row
+     * @param portalPartners: the partner of each portal cell
+     * @param reached: the cells reached so far
+     * @param seeds: the seeds to be filled from
+     */
+    private void seedRuns(int left, int right, int y, HashMap<Integer, Integer> portalPartners,
+                          BitSet reached, IntStack seeds) {
+        if (y < 0 || y >= height)
+            return;
+        final int rowStart = y * width;
+        boolean inRun = false;
+        for (int x = left; x <= right; x++) {
+            final int cell = rowStart + x;
+            if (isPlain(cell, portalPartners) && !reached.get(cell)) {
+                if (!inRun)
+                    seeds.push(cell); // a seed per run, the span fill does the rest
+                inRun = true;
+            } else {
+                enter(x, y, portalPartners, reached, seeds);
+                inRun = false;
+            }
+        }
+    }
+
+    /**
+     * Moves onto a cell: seeds the cell, or its partner if it is a portal, unless it is a wall or reached already.
+     * @param x: x coordinate of the cell
+     * @param y: y coordinate of the cell
+     * @param portalPartners: the partner of each portal cell
+     * @param reached: the cells reached so far
+     * @param seeds: the seeds to be filled from
+     */
+    private void enter(int x, int y, HashMap<Integer, Integer> portalPartners, BitSet reached, IntStack seeds) {
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            return;
+        final int cell = y * width + x;
+        if (walls.get(cell))
+            return;
+        final int landing = portalPartners.getOrDefault(cell, cell);
+        if (!reached.get(landing))
+            seeds.push(landing);
+    }
+
+    /**
+     * Checks whether a cell is a plain open cell, i.e. neither a wall nor a (paired) portal.
+     * @param cell: the cell index
+     * @param portalPartners: the partner of each portal cell
+     * @return true if a move onto the cell stays on it, false otherwise.
+     */
+    private boolean isPlain(int cell, HashMap<Integer, Integer> portalPartners) {
+        return !walls.get(cell) && !portalPartners.containsKey(cell);
+    }
+
+    /**
+     * A LIFO stack of integers, backed by an array (grown when full).
+     */
+    private static class IntStack {
+        private int[] elements = new int[64];
+        private int size = 0;
+
+        /**
+         * Pushes an element on top of the stack.
+         * @param element: the element to be pushed.
+         */
+        public void push(int element) {
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, 2 * size);
+            elements[size++] = element;
+        }
+
+        /**
+         * Pops the element on top of the stack.
+         * @return the popped element.
+         */
+        public int pop() {
+            return elements[--size];
+        }
+
+        /**
+         * Checks if the stack is empty.
+         * @return true if there are no elements, false otherwise.
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package checker.levelChecks;
 
 import checker.Checker;
 import game.Maps.EditorMap;
+import game.Maps.MapFileCache;
 import org.jdom.JDOMException;
 
 import java.io.IOException;
@@ -14,7 +15,7 @@ public abstract class LevelChecker extends Checker {
      * {@inheritDoc}
      */
     public boolean check(String mapFile) throws IOException, JDOMException {
-        return check(new EditorMap(mapFile));
+        return check(MapFileCache.getInstance().getEditorMap(mapFile));
     }
     /**
      * Checks the validity of the EditorMap.
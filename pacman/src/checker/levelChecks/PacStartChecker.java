@@ -2,6 +2,7 @@ package checker.levelChecks;
 
 import ch.aplu.jgamegrid.Location;
 import checker.ErrorMessageBody;
+import game.ActorType;
 import game.CharacterType;
 import game.Maps.EditorMap;
 
@@ -10,24 +11,28 @@ import java.util.ArrayList;
 /**
  * Check if there is one and only one PacPlayer start location.
  */
-public class PacStartChecker extends LevelChecker {
+public class PacStartChecker extends SinglePassLevelChecker {
+    private final ArrayList<Location> pacStarts = new ArrayList<>();
 
-    /**
-     * {@inheritDoc}
-     */
+    /** {@inheritDoc} */
     @Override
-    public boolean check(EditorMap map) {
-        boolean flag = true;
-        ArrayList<Location> pacStarts = new ArrayList<>();
-        for (int i = 0; i < map.getVerticalCellsCount(); i++) {
-            for (int j = 0; j < map.getHorizontalCellsCount(); j++) {
-                Location loc = new Location(j, i);
-                if (map.isCharacterType(loc) && map.getTypeAt(loc) == CharacterType.PACMAN) {
-                    pacStarts.add(loc);
-                }
-            }
+    protected void startScan(EditorMap map) {
+        pacStarts.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void visitRow(int y, ActorType[] row) {
+        for (int x = 0; x < row.length; x++) {
+            if (row[x] == CharacterType.PACMAN)
+                pacStarts.add(new Location(x, y));
         }
+    }
 
+    /** {@inheritDoc} */
+    @Override
+    protected boolean endScan(EditorMap map) {
+        boolean flag = true;
         if (pacStarts.size() == 0) { // no starting point
             flag = false;
             addError(formatLogHeader(map.getFileName()) + ErrorMessageBody.LEVEL_A_NO_START);
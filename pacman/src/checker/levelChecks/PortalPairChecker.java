@@ -2,24 +2,39 @@ package checker.levelChecks;
 
 import ch.aplu.jgamegrid.Location;
 import checker.ErrorMessageBody;
+import game.ActorType;
 import game.Items.CellType;
 import game.Maps.EditorMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 
 /**
  * Check that all portal pairs are valid.
  */
-public class PortalPairChecker extends LevelChecker {
-    /**
-     * {@inheritDoc}
-     */
+public class PortalPairChecker extends SinglePassLevelChecker {
+    // the locations of each portal type, in the order of the types (so that the errors are reported in a fixed order)
+    private final EnumMap<CellType, ArrayList<Location>> portalLocations = new EnumMap<>(CellType.class);
+
+    /** {@inheritDoc} */
     @Override
-    public boolean check(EditorMap map) {
-        boolean flag = true;
-        HashMap<CellType, ArrayList<Location>> portalLocations = map.getPortalLocations();
+    protected void startScan(EditorMap map) {
+        portalLocations.clear();
+    }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void visitRow(int y, ActorType[] row) {
+        for (int x = 0; x < row.length; x++) {
+            if (row[x] instanceof CellType && ((CellType) row[x]).isPortal())
+                portalLocations.computeIfAbsent((CellType) row[x], k -> new ArrayList<>()).add(new Location(x, y));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean endScan(EditorMap map) {
+        boolean flag = true;
         for (CellType type : portalLocations.keySet()) {
             ArrayList<Location> locationList = portalLocations.get(type);
             // should have exactly two tiles for each portal
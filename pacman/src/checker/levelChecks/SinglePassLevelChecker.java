@@ -0,0 +1,60 @@
+package checker.levelChecks;
+
+import game.ActorType;
+import game.Maps.EditorMap;
+
+/**
+ * A level check made of a single scan of the map: it is given every row of cells in turn,
+ * accumulating what it needs, and decides once the scan is over.
+ * The CompositeLevelChecker scans a map once for all its single pass checkers,
+ * so a new check of this kind adds no scan of its own.
+ */
+public abstract class SinglePassLevelChecker extends LevelChecker {
+
+    /**
+     * Checks the map on its own, with a scan of its own.
+     * @param map: an EditorMap (corresponding to a level) to be checked.
+     * @return true if the check is passed, false otherwise.
+     */
+    @Override
+    public boolean check(EditorMap map) {
+        startScan(map);
+        scan(map, this);
+        return endScan(map);
+    }
+
+    /**
+     * Scans the map once, giving each cell to all the given checkers.
+     * @param map: the map to be scanned
+     * @param checkers: the checkers to give the cells to, started beforehand.
+     */
+    static void scan(EditorMap map, SinglePassLevelChecker... checkers) {
+        final int height = map.getVerticalCellsCount();
+        ActorType[] row = new ActorType[map.getHorizontalCellsCount()];
+        for (int y = 0; y < height; y++) {
+            map.copyRow(y, row);
+            for (SinglePassLevelChecker checker : checkers)
+                checker.visitRow(y, row);
+        }
+    }
+
+    /**
+     * Resets the accumulated state, before a scan of the map.
+     * @param map: the map about to be scanned
+     */
+    protected abstract void startScan(EditorMap map);
+
+    /**
+     * Accumulates what the check needs from a row of cells.
+     * @param y: y coordinate of the row
+     * @param row: the types of the row's cells, by x coordinate (not to be kept)
+     */
+    protected abstract void visitRow(int y, ActorType[] row);
+
+    /**
+     * Decides on the check once the map has been scanned, adding the errors found.
+     * @param map: the scanned map
+     * @return true if the check is passed, false otherwise.
+     */
+    protected abstract boolean endScan(EditorMap map);
+}
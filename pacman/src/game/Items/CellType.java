@@ -125,4 +125,12 @@ public enum CellType implements ActorType {
     public boolean isPortal() {
         return PORTALS.contains(this);
     }
+
+    /**
+     * Given the type, determines if its item can be eaten (i.e. pills, golds and ice cubes).
+     * @return A boolean determining whether it is eatable.
+     */
+    public boolean isEatable() {
+        return this == PILL || this == GOLD || this == ICE;
+    }
 }
@@ -8,7 +8,7 @@ package game.Items;
 public class Gold extends Pill {
 
     private static final String IMAGE_FILE = "pacman/sprites/gold.png";
-    private static final int SCORE_EFFECT = 5;
+    static final int SCORE_EFFECT = 5;
 
     /**
      * Creates a gold.
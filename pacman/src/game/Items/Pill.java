@@ -37,6 +37,19 @@ public class Pill extends Item {
         return scoreEffect;
     }
 
+    /**
+     * Gets the score effect of the pills of the given type, without creating one.
+     * @param type: the cell type of the pill
+     * @return its score effect, 0 if the type is not a pill.
+     */
+    public static int scoreEffectOf(CellType type) {
+        return switch (type) {
+            case PILL -> SCORE_EFFECT;
+            case GOLD -> Gold.SCORE_EFFECT;
+            default -> 0;
+        };
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean isEatable() {
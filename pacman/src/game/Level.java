@@ -11,7 +11,10 @@ import game.Monsters.TX5;
 import game.Monsters.Troll;
 import game.Player.PacPlayer;
 import game.Player.PlayerFactory;
+import game.Workers.DangerOverlay;
 import game.Workers.LocationIndexConverter;
+import game.Workers.MapLocations;
+import game.Workers.MonsterOccupancy;
 import game.Workers.SettingManager;
 import game.utility.GameCallback;
 
@@ -29,17 +32,23 @@ public class Level extends GameGrid {
     public final static int DEFAULT_NB_HORZ_CELLS = 20;
     public final static int DEFAULT_NB_VERT_CELLS = 11;
     private final static int CELL_SIZE = 20;
-    private static final int SLOW_DOWN_FACTOR = 3;
+    public static final int SLOW_DOWN_FACTOR = 3;
     private static final int KEY_REPEAT_PERIOD = 150;
-    private static final int SIMULATION_PERIOD = 100;
+    public static final int SIMULATION_PERIOD = 100;
     private static final Color WIN_COLOR = Color.yellow;
     private static final Color LOSE_COLOR = Color.red;
 
     /* Actors */
     protected PacPlayer pacPlayer;
     private final ArrayList<Monster> monsters = new ArrayList<>();
+    // the monsters by cell, kept up to date as they move
+    private final MonsterOccupancy monsterOccupancy;
+    // the cells near the monsters, rebuilt once per cycle
+    private final DangerOverlay dangerOverlay;
     private final SettingManager settingManager;
     private final GameCallback gameCallback;
+    // the simulation cycles and delayed events of the level
+    private final SimulationClock clock;
 
     private final Optional<LevelCompletionHandler> completionHandler;
     /* The WeakReference breaks the chain of references,
@@ -49,8 +58,6 @@ public class Level extends GameGrid {
     private final Optional<WeakReference<Game>> game;
 
 
-    private int maxPillsCount = 0;
-
     /**
      * Constructs a level using tne properties file only for isAuto and seed,
      * and a separate map (new version for mainApp.TorusVerseApp).
@@ -62,8 +69,11 @@ public class Level extends GameGrid {
     public Level(Properties properties, PacManMap map, Optional<LevelCompletionHandler> completionHandler,
                  Optional<WeakReference<Game>> game) {
         super(map.getHorizontalCellsCount(), map.getVerticalCellsCount(), CELL_SIZE, false);
-        this.gameCallback = new GameCallback();
         this.settingManager = new SettingManager(properties, map, this);
+        this.clock = settingManager.createClock();
+        this.monsterOccupancy = new MonsterOccupancy(map.getHorizontalCellsCount(), map.getVerticalCellsCount());
+        this.dangerOverlay = settingManager.createDangerOverlay();
+        this.gameCallback = new GameCallback(properties, clock::getCycle);
 
         this.completionHandler = completionHandler;
         this.game = game;
@@ -100,7 +110,7 @@ public class Level extends GameGrid {
      */
     public void run() {
         // Initializations
-        setSimulationPeriod(SIMULATION_PERIOD);
+        setSimulationPeriod(clock.getWallPeriod(SIMULATION_PERIOD));
         setTitle("[PacMan in the TorusVerse]");
         setUpActors();
 
@@ -118,6 +128,7 @@ public class Level extends GameGrid {
     private void addMonster(Monster monster, Location location) {
         monsters.add(monster);
         addActor(monster, location, Location.NORTH); // bind it to the game
+        monsterOccupancy.add(location);
         monster.setSlowDown(SLOW_DOWN_FACTOR);
     }
 
@@ -128,18 +139,18 @@ public class Level extends GameGrid {
         int seed = settingManager.getSeed();
         Location pacActorLocation = null;
 
-        HashMap<Integer, ActorType> characterLocations = settingManager.getCharacterLocations();
+        MapLocations locations = settingManager.getLocations();
         LocationIndexConverter indexConverter = new LocationIndexConverter(settingManager.getMap().getHorizontalCellsCount());
-        for (Map.Entry<Integer, ActorType> entry : characterLocations.entrySet()) {
-            Location location = indexConverter.getLocationByIndex(entry.getKey());
-            ActorType type = entry.getValue();
+        for (int i = 0; i < locations.getCharacterCount(); i++) {
+            Location location = indexConverter.getLocationByIndex(locations.getCharacterCell(i));
+            CharacterType type = locations.getCharacterType(i);
             if (type.equals(CharacterType.PACMAN)) {
                 setUpPacActor(seed);
                 pacActorLocation = location;
             } else if (type.equals(CharacterType.M_TROLL)) {
                 addMonster(new Troll(seed), location);
             } else if (type.equals(CharacterType.M_TX5)) {
-                addMonster(new TX5(seed), location);
+                addMonster(new TX5(seed, clock.getScheduler()), location);
             }
         }
 
@@ -147,6 +158,16 @@ public class Level extends GameGrid {
         // add pacActor last so that it would `act` first
         if (pacActorLocation != null)
             addActor(pacPlayer, pacActorLocation);
+        updateDangerOverlay();
+    }
+
+    /**
+     * Rebuilds the danger overlay for the current locations of the monsters.
+     */
+    private void updateDangerOverlay() {
+        dangerOverlay.clear();
+        for (Monster monster : monsters)
+            dangerOverlay.addMonster(monster.getLocation(), monster.getCharacterType());
     }
 
     /**
@@ -176,13 +197,10 @@ public class Level extends GameGrid {
      */
     @Override
     public void act() {
-        if (maxPillsCount == 0)
-            maxPillsCount = settingManager.countPills(); // store the pills count
-
         boolean gameOver = pacActorCollidedWithMonster();
         if (gameOver) {
             setLostEnding();
-        } else if (pacPlayer.getNbPills() >= maxPillsCount) {
+        } else if (settingManager.countPills() == 0) { // all pills eaten
             setWinEnding();
             if (completionHandler.isPresent() && game.isPresent()) {
                 if (!game.get().get().noMoreLevels()) {
@@ -192,9 +210,31 @@ public class Level extends GameGrid {
             }
         }
 
+        updateDangerOverlay(); // the monsters have moved
+        clock.endCycle();
         super.act();
     }
 
+    /**
+     * Runs the next cycle(s) of the game grid:
+     * more than one when the clock is catching up with the wall clock (see SimulationClock).
+     */
+    @Override
+    public void actAll() {
+        int cycles = clock.getCyclesPerFrame(SIMULATION_PERIOD, System.nanoTime());
+        super.actAll();
+        for (int i = 1; i < cycles && isRunning(); i++)
+            super.actAll();
+    }
+
+    /**
+     * Gets the simulation clock of the level.
+     * @return the clock the game logic reads the cycles from.
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
     /**
      * Gets the setting manager of the game.
      * @return the setting manager.
@@ -218,22 +258,7 @@ public class Level extends GameGrid {
      * @return true if the collision happened, false otherwise.
      */
     private boolean pacActorCollidedWithMonster() {
-        for (Monster monster: monsters) {
-            if (collide(monster, pacPlayer)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Checks whether the two actors collides.
-     * @param actor1: first actor
-     * @param actor2: second actor
-     * @return true if they collided, false otherwise.
-     */
-    private boolean collide(Actor actor1, Actor actor2) {
-        return actor1.getLocation().equals(actor2.getLocation());
+        return monsterOccupancy.isMonsterAt(pacPlayer.getLocation());
     }
 
 
@@ -263,6 +288,7 @@ public class Level extends GameGrid {
     private void setEnding(String title) {
         setTitle(title);
         doPause();
+        clock.stop(); // no more delayed events
 
         gameCallback.endOfGame(title);
     }
@@ -274,4 +300,20 @@ public class Level extends GameGrid {
     public ArrayList<Monster> getMonsters() {
         return monsters;
     }
+
+    /**
+     * Gets the occupancy index of the monsters on this level.
+     * @return the monsters by cell.
+     */
+    public MonsterOccupancy getMonsterOccupancy() {
+        return monsterOccupancy;
+    }
+
+    /**
+     * Gets the danger zones of the monsters on this level.
+     * @return the overlay of the cells near the monsters, as of the end of the last cycle.
+     */
+    public DangerOverlay getDangerOverlay() {
+        return dangerOverlay;
+    }
 }
@@ -2,6 +2,7 @@ package game;
 
 import ch.aplu.jgamegrid.Location;
 import game.Items.CellType;
+import game.Workers.NavGraph;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -68,4 +69,13 @@ public interface LocationExpert {
         }
         return portalLocations;
     }
+
+    /**
+     * Gets the navigation graph (walls, neighbours and portal jumps) of the locations.
+     * Experts that keep their walls should override this to reuse the compiled graph.
+     * @return a NavGraph compiled from this expert.
+     */
+    default NavGraph getNavGraph() {
+        return new NavGraph(this);
+    }
 }
@@ -0,0 +1,249 @@
+package game.Maps;
+
+import game.ActorType;
+import game.Items.CellType;
+import mapeditor.editor.Controller;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The compact binary map format, an alternative to the editor's xml format (with the `.pmap` extension).
+ *
+ * The file starts with a header: MAGIC (int), VERSION (byte), the encoding (byte), width (int), height (int).
+ * Then come the cells, row by row, each cell being a tile code (the editor's tile character minus 'a'):
+ * either one byte per cell (RAW), or runs of (length, code) bytes that do not cross rows (RLE).
+ * The writer picks whichever encoding is smaller, except for large maps that are always written raw,
+ * so that they can be memory-mapped rather than loaded (see MappedTileGrid).
+ */
+public class BinaryMapFile {
+    public static final String EXTENSION = "pmap";
+    public static final int MAGIC = 0x504d4150; // "PMAP"
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 14;
+
+    /* encodings of the cells */
+    public static final byte RAW = 0;
+    public static final byte RLE = 1;
+
+    /* maps of at least this many cells are written raw, and memory-mapped when read */
+    public static final long MAPPED_MIN_CELLS = 1 << 20;
+
+    private static final int MAX_RUN = 255; // a run's length is an unsigned byte
+
+    /* the tile codes and their types */
+    private static final ActorType[] TYPES_BY_CODE;
+    private static final HashMap<ActorType, Byte> CODES_BY_TYPE = new HashMap<>();
+    // the type of each byte value, SPACE for the unknown codes
+    private static final ActorType[] TYPES_BY_BYTE = new ActorType[256];
+
+    static {
+        HashMap<Character, ActorType> tiles = Controller.getCharToActorTypeDict();
+        TYPES_BY_CODE = new ActorType[tiles.size()];
+        for (char tile = 'a'; tile < 'a' + tiles.size(); tile++) {
+            TYPES_BY_CODE[tile - 'a'] = tiles.get(tile);
+            CODES_BY_TYPE.put(tiles.get(tile), (byte) (tile - 'a'));
+        }
+        Arrays.fill(TYPES_BY_BYTE, CellType.SPACE);
+        System.arraycopy(TYPES_BY_CODE, 0, TYPES_BY_BYTE, 0, TYPES_BY_CODE.length);
+    }
+
+    /**
+     * The header of a binary map file.
+     */
+    static class Header {
+        final byte encoding;
+        final int width;
+        final int height;
+
+        Header(byte encoding, int width, int height) {
+            this.encoding = encoding;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * Checks whether a file is named as a binary map file.
+     * @param file: the file to be checked
+     * @return true if it has the binary map extension, false otherwise.
+     */
+    public static boolean isBinaryMapFile(File file) {
+        return file.getName().endsWith("." + EXTENSION);
+    }
+
+    /**
+     * Reads the types of a binary map file.
+     * @param file: the binary map file
+     * @return the types, by row then by column.
+     * @throws IOException if the file cannot be read, or is not a valid binary map file.
+     */
+    public static ActorType[][] read(File file) throws IOException {
+        if (!file.canRead() || !file.exists())
+            throw new IOException("Cannot read the file.");
+        try {
+            return read(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary map file: " + file.getName());
+        }
+    }
+
+    /**
+     * Reads the types of a binary map, from its header on.
+     * @param buffer: the binary map, positioned at its start
+     * @return the types, by row then by column.
+     * @throws IOException if this is not a valid binary map.
+     */
+    static ActorType[][] read(ByteBuffer buffer) throws IOException {
+        Header header = readHeader(buffer);
+        byte encoding = header.encoding;
+        int width = header.width;
+        int height = header.height;
+
+        ActorType[][] map = new ActorType[height][width];
+        for (ActorType[] row : map) {
+            if (encoding == RAW) {
+                for (int x = 0; x < width; x++)
+                    row[x] = typeOf(buffer.get());
+            } else {
+                int x = 0;
+                while (x < width) {
+                    int length = Byte.toUnsignedInt(buffer.get());
+                    ActorType type = typeOf(buffer.get());
+                    if (length == 0 || x + length > width)
+                        throw new IOException("Invalid run in binary map file");
+                    for (int end = x + length; x < end; x++)
+                        row[x] = type;
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Reads the header of a binary map.
+     * @param buffer: the binary map, positioned at its start
+     * @return the header read.
+     * @throws IOException if this is not a binary map this version can read.
+     */
+    static Header readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("Not a binary map file");
+        byte version = buffer.get();
+        if (version != VERSION)
+            throw new IOException("Unsupported binary map file version " + version);
+        byte encoding = buffer.get();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (width <= 0 || height <= 0)
+            throw new IOException("Invalid binary map size " + width + "x" + height);
+        if (encoding != RAW && encoding != RLE)
+            throw new IOException("Unknown binary map encoding " + encoding);
+        return new Header(encoding, width, height);
+    }
+
+    /**
+     * Gets the type of a tile code, without checking it.
+     * @param code: the tile code
+     * @return the corresponding type, SPACE if there is no such tile.
+     */
+    static ActorType typeOfByte(byte code) {
+        return TYPES_BY_BYTE[code & 0xff];
+    }
+
+    /**
+     * Gets the type of a tile code.
+     * @param code: the tile code
+     * @return the corresponding type.
+     * @throws IOException if there is no such tile.
+     */
+    private static ActorType typeOf(byte code) throws IOException {
+        if (code < 0 || code >= TYPES_BY_CODE.length)
+            throw new IOException("Unknown tile code " + code + " in binary map file");
+        return TYPES_BY_CODE[code];
+    }
+
+    /**
+     * Writes a map as a binary map file, in the smaller of the two encodings (raw for large maps).
+     * Missing cells are written as paths, as the editor does.
+     * The map is written row by row, so it does not need to fit on the heap.
+     * @param map: the map to be written
+     * @param file: the file to write to (overwritten)
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(EditorMap map, File file) throws IOException {
+        int width = map.getHorizontalCellsCount();
+        int height = map.getVerticalCellsCount();
+        ActorType[] row = new ActorType[width];
+        byte[] codeRow = new byte[width];
+
+        long cells = (long) width * height;
+        byte encoding = RAW;
+        if (cells < MAPPED_MIN_CELLS) {
+            long runBytes = 0;
+            for (int y = 0; y < height; y++) {
+                copyCodes(map, y, row, codeRow);
+                for (int start = 0; start < width; start = runEnd(codeRow, start))
+                    runBytes += 2;
+            }
+            if (runBytes < cells)
+                encoding = RLE;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(encoding);
+            out.writeInt(width);
+            out.writeInt(height);
+            for (int y = 0; y < height; y++) {
+                copyCodes(map, y, row, codeRow);
+                if (encoding == RAW) {
+                    out.write(codeRow);
+                    continue;
+                }
+                int start = 0;
+                while (start < width) {
+                    int end = runEnd(codeRow, start);
+                    out.writeByte(end - start);
+                    out.writeByte(codeRow[start]);
+                    start = end;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the tile codes of a row of a map.
+     * @param map: the map to be read
+     * @param y: y coordinate of the row
+     * @param row: an array of the map's width, for the types of the row
+     * @param codeRow: the array to write the codes to, of the map's width
+     */
+    private static void copyCodes(EditorMap map, int y, ActorType[] row, byte[] codeRow) {
+        map.copyRow(y, row);
+        for (int x = 0; x < row.length; x++)
+            codeRow[x] = CODES_BY_TYPE.getOrDefault(row[x], CODES_BY_TYPE.get(CellType.SPACE));
+    }
+
+    /**
+     * Finds the end of a run of the same tile code, as long as a run can be.
+     * @param codeRow: the tile codes of a row
+     * @param start: index of the first cell of the run
+     * @return the index right after the run's last cell.
+     */
+    private static int runEnd(byte[] codeRow, int start) {
+        int end = start + 1;
+        while (end < codeRow.length && end - start < MAX_RUN && codeRow[end] == codeRow[start])
+            end++;
+        return end;
+    }
+}
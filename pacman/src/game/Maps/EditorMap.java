@@ -4,28 +4,29 @@ import ch.aplu.jgamegrid.Location;
 import game.ActorType;
 import game.CharacterType;
 import game.Items.CellType;
-import game.Player.OptimalPathFindingStrategy;
+import game.Player.AStarPathFindingStrategy;
+import game.Workers.MapLocations;
 import game.Workers.MapReader;
+import game.Workers.NavGraph;
 import mapeditor.editor.Controller;
-import org.jdom.Document;
-import org.jdom.Element;
 import org.jdom.JDOMException;
-import org.jdom.input.SAXBuilder;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
 
 
 /**
- * A map, typically one loaded from a `.xml` file on disk,
+ * A map, typically one loaded from a `.xml` (or binary `.pmap`) file on disk,
  * and is used for the map editor.
  */
 public class EditorMap implements PacManMap {
 
+    // the types on the heap, or (for large binary map files) read directly from the mapped file
     private final ActorType[][] map;
+    private final MappedTileGrid mappedTiles;
     private String fileName;
+    // compiled lazily, as the map does not change once created
+    private NavGraph navGraph;
 
 
     /**
@@ -35,6 +36,7 @@ public class EditorMap implements PacManMap {
      */
     public EditorMap(char[][] mazeArray) {
         this.map = new ActorType[mazeArray.length][mazeArray[0].length];
+        this.mappedTiles = null;
 
         for (int i = 0; i < mazeArray.length; i++) {
             for (int j = 0; j < mazeArray[0].length; j++) {
@@ -56,48 +58,43 @@ public class EditorMap implements PacManMap {
     }
 
     /**
-     * Creates a map from a given file path (should be an xml file).
+     * Creates a map from a given file path (should be an xml or binary map file).
      *
      * @param filePath: The absolute or relative path of the file,
      *                with working directory at the top level (the folder with `pacman`).
      */
-    /* Method adapted from the original loadFile() method in mapeditor.editor.Controller */
     public EditorMap(String filePath) throws IOException, JDOMException {
+        this(new File(filePath));
+    }
 
-        SAXBuilder builder = new SAXBuilder();
-        File file = new File(filePath);
-        if (file.canRead() && file.exists()) {
-            this.fileName = file.getName(); // only keep the filename portion
-            Document document = builder.build(file);
-
-            Element rootNode = document.getRootElement();
-
-            final List sizeList = rootNode.getChildren("size");
-            Element sizeElem = (Element) sizeList.get(0);
-            int height = Integer.parseInt(sizeElem.getChildText("height"));
-            int width = Integer.parseInt(sizeElem.getChildText("width"));
-
-            this.map = new ActorType[height][width];
-
-            final List rows = rootNode.getChildren("row");
-            System.out.println(rows.getClass());
-            for (int y = 0; y < rows.size(); y++) {
-                Element cellsElem = (Element) rows.get(y);
-                final List cells = cellsElem.getChildren("cell");
-
-                for (int x = 0; x < cells.size(); x++) {
-                    Element cell = (Element) cells.get(x);
-                    String cellValue = cell.getText();
-
-                    this.map[y][x] = Controller.getStrToActorTypeDict().getOrDefault(cellValue, CellType.SPACE);
-                }
-            }
-        } else {
-            throw new IOException("Cannot read the file.");
+    /**
+     * Creates a map from a given file, read in a single streaming pass.
+     * The file is read as a binary map file if it has the binary extension, as an xml file otherwise.
+     * Large raw-encoded binary map files are memory-mapped rather than read.
+     *
+     * @param file: the map file.
+     * @throws MapFileParser.InvalidMapException if the map has more than Integer.MAX_VALUE cells.
+     */
+    public EditorMap(File file) throws IOException, JDOMException {
+        boolean binary = BinaryMapFile.isBinaryMapFile(file);
+        this.mappedTiles = binary && file.length() >= BinaryMapFile.HEADER_SIZE + BinaryMapFile.MAPPED_MIN_CELLS
+                ? MappedTileGrid.open(file) : null;
+        if (mappedTiles != null)
+            this.map = null;
+        else
+            this.map = binary ? BinaryMapFile.read(file) : MapFileParser.parse(file);
+        this.fileName = file.getName(); // only keep the filename portion
+
+        // the checker indexes the cells by int (in BitSets); whether a map fits in the heap
+        // is up to the checker and the levels, see HeapBudget
+        try {
+            Math.multiplyExact(getHorizontalCellsCount(), getVerticalCellsCount());
+        } catch (ArithmeticException e) {
+            throw new MapFileParser.InvalidMapException("Map too large: " + getHorizontalCellsCount() + "x"
+                    + getVerticalCellsCount() + " cells, at most " + Integer.MAX_VALUE + " cells are supported");
         }
     }
 
-
     /**
      * @return The name of the file used to construct the map.
      */
@@ -108,7 +105,29 @@ public class EditorMap implements PacManMap {
     /** {@inheritDoc} */
     @Override
     public ActorType getTypeAt(Location loc) {
-        return map[loc.y][loc.x];
+        return getTypeAt(loc.x, loc.y);
+    }
+
+    /**
+     * Gets the type at the given coordinates.
+     * @param x: x coordinate of the cell
+     * @param y: y coordinate of the cell
+     * @return the type of the cell.
+     */
+    private ActorType getTypeAt(int x, int y) {
+        return map != null ? map[y][x] : mappedTiles.getTypeAt(x, y);
+    }
+
+    /**
+     * Copies the types of a row of cells (without creating a Location per cell).
+     * @param y: y coordinate of the row
+     * @param row: the array to copy the types to, of the map's width
+     */
+    public void copyRow(int y, ActorType[] row) {
+        if (map != null)
+            System.arraycopy(map[y], 0, row, 0, row.length);
+        else
+            mappedTiles.copyRow(y, row);
     }
 
     /**
@@ -117,19 +136,13 @@ public class EditorMap implements PacManMap {
      * @return true if the location is for an item, false otherwise.
      */
     public boolean isCellType(Location loc) {
-        return map[loc.y][loc.x] instanceof CellType;
-    }
-
-    /** {@inheritDoc} */
-    @Override
-    public HashMap<Integer, ActorType> readMyItemLocations(MapReader reader) {
-        return reader.getItemLocations(this);
+        return getTypeAt(loc) instanceof CellType;
     }
 
     /** {@inheritDoc} */
     @Override
-    public HashMap<Integer, ActorType> readMyCharacterLocations(MapReader reader) {
-        return reader.getCharacterLocations(this);
+    public MapLocations readMyLocations(MapReader reader) {
+        return reader.getLocations(this);
     }
 
     /**
@@ -138,19 +151,19 @@ public class EditorMap implements PacManMap {
      * @return true if the location is for a character (i.e. a MovingActor), false otherwise.
      */
     public boolean isCharacterType(Location loc){
-        return map[loc.y][loc.x] instanceof CharacterType;
+        return getTypeAt(loc) instanceof CharacterType;
     }
 
     /** {@inheritDoc} */
     @Override
     public int getVerticalCellsCount() {
-        return map.length;
+        return map != null ? map.length : mappedTiles.getHeight();
     }
 
     /** {@inheritDoc} */
     @Override
     public int getHorizontalCellsCount() {
-        return map[0].length;
+        return map != null ? map[0].length : mappedTiles.getWidth();
     }
 
     /**
@@ -161,13 +174,21 @@ public class EditorMap implements PacManMap {
      * @return true if accessible, false if not.
      */
     public boolean canReach(Location from, Location to) {
-        return (new OptimalPathFindingStrategy().findPath(from, to, this) != null);
+        return (new AStarPathFindingStrategy().findPath(from, to, this) != null);
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean isWallAt(Location location) {
-        return map[location.y][location.x] == CellType.WALL;
+        return getTypeAt(location) == CellType.WALL;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized NavGraph getNavGraph() {
+        if (navGraph == null)
+            navGraph = new NavGraph(this);
+        return navGraph;
     }
 
 }
@@ -0,0 +1,124 @@
+package game.Maps;
+
+import org.jdom.JDOMException;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A singleton cache of the loaded map files, so that each file is read once
+ * across the game check, the level checks and the game loading.
+ * An entry is dropped as soon as its file changes on disk (i.e. its size or modification time),
+ * or once its map is taken by getEditorMap(). The maps are only softly held meanwhile,
+ * so that the maps parsed but never taken (with their navigation graphs) do not pile up in memory.
+ * Safe to use from several threads.
+ */
+public class MapFileCache {
+    private static MapFileCache instance = null; // singleton
+
+    private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The load result of a file (valid xml), as it was when read.
+     */
+    private static class Entry {
+        private final long lastModified;
+        private final long size;
+        // either the map (cleared if the memory runs low), or why the file is not a map
+        private final SoftReference<EditorMap> map;
+        private final MapFileParser.InvalidMapException error;
+
+        Entry(long lastModified, long size, EditorMap map, MapFileParser.InvalidMapException error) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.map = new SoftReference<>(map);
+            this.error = error;
+        }
+
+        /**
+         * Checks whether the load result is still held.
+         * @return true if the entry holds its map or error, false if the map was cleared.
+         */
+        boolean isHeld() {
+            return error != null || map.get() != null;
+        }
+    }
+
+    /**
+     * Gets the single instance of this cache.
+     * @return the MapFileCache instance.
+     */
+    public static synchronized MapFileCache getInstance() {
+        if (instance == null)
+            instance = new MapFileCache();
+        return instance;
+    }
+
+    /**
+     * Reads a map file, unless it was read already (and has not changed since).
+     * Succeeds for any valid xml file, even if not a map (and for any valid binary map file).
+     * @param filePath: path to the map file
+     * @throws IOException if the file cannot be read (or is not a valid binary map file).
+     * @throws JDOMException if the file is not valid xml.
+     */
+    public void parse(String filePath) throws IOException, JDOMException {
+        getEntry(filePath);
+    }
+
+    /**
+     * Takes the map of a map file, reading it only if not done already.
+     * The cache lets go of the map once taken: the caller keeps it as long as needed.
+     * @param filePath: path to the map file
+     * @return the map.
+     * @throws IOException if the file cannot be read, or is not a map.
+     * @throws JDOMException if the file is not valid xml.
+     */
+    public EditorMap getEditorMap(String filePath) throws IOException, JDOMException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        Entry entry = getEntry(filePath);
+        EditorMap map = entry.map.get();
+        entries.remove(path, entry);
+        if (entry.error != null)
+            throw entry.error;
+        return map != null ? map : new EditorMap(filePath); // cleared in between
+    }
+
+    /**
+     * Empties the cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the up-to-date entry of a file, reading the file if needed.
+     * @param filePath: path to the map file
+     * @return the entry.
+     * @throws IOException if the file cannot be read.
+     * @throws JDOMException if the file is not valid xml.
+     */
+    private Entry getEntry(String filePath) throws IOException, JDOMException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        if (!Files.isReadable(path))
+            throw new IOException("Cannot read the file.");
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        long size = Files.size(path);
+
+        Entry entry = entries.get(path);
+        if (entry != null && entry.lastModified == lastModified && entry.size == size && entry.isHeld())
+            return entry;
+
+        // read outside of the map, so that different files can be read at the same time
+        try {
+            entry = new Entry(lastModified, size, new EditorMap(filePath), null);
+        } catch (MapFileParser.InvalidMapException e) {
+            entry = new Entry(lastModified, size, null, e);
+        }
+        entries.put(path, entry);
+        return entry;
+    }
+}
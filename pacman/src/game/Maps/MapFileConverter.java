@@ -0,0 +1,59 @@
+package game.Maps;
+
+import org.jdom.JDOMException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts xml map files into binary map files (see BinaryMapFile),
+ * each written next to its xml file, with the binary extension.
+ */
+public class MapFileConverter {
+
+    /**
+     * Converts an xml map file.
+     * @param xmlFile: the xml map file
+     * @return the binary map file written.
+     * @throws IOException if the xml file is not a valid map, or the binary file cannot be written.
+     * @throws JDOMException if the xml file is not valid xml.
+     */
+    public static File convert(File xmlFile) throws IOException, JDOMException {
+        String name = xmlFile.getName();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        File binaryFile = new File(xmlFile.getParentFile(), baseName + "." + BinaryMapFile.EXTENSION);
+        BinaryMapFile.write(new EditorMap(xmlFile), binaryFile);
+        return binaryFile;
+    }
+
+    /**
+     * Converts the xml map files given, or found in the folders given.
+     * @param args: the xml map files, or folders of them
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: MapFileConverter <xml map file or folder>...");
+            return;
+        }
+        List<File> xmlFiles = new ArrayList<>();
+        for (String arg : args) {
+            File file = new File(arg);
+            File[] found = file.isDirectory() ? file.listFiles((dir, name) -> name.endsWith(".xml")) : new File[]{file};
+            if (found != null)
+                xmlFiles.addAll(List.of(found));
+        }
+
+        for (File xmlFile : xmlFiles) {
+            try {
+                File binaryFile = convert(xmlFile);
+                System.out.println(xmlFile + " (" + xmlFile.length() + " bytes) -> "
+                        + binaryFile + " (" + binaryFile.length() + " bytes)");
+            } catch (IOException | JDOMException e) {
+                System.out.println(xmlFile + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package game.Maps;
+
+import game.ActorType;
+import game.Items.CellType;
+import mapeditor.editor.Controller;
+import org.jdom.JDOMException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Reads a map file (as saved by the map editor) in a single streaming pass,
+ * filling the map's types directly: no document tree is built, and no String is created per cell.
+ * The layout read is the same as the editor's: a root with a `size` (`width`, `height`),
+ * then `row`s of `cell`s holding the tile names.
+ */
+public class MapFileParser {
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /* the tile names and their types, looked up without creating Strings */
+    private static final char[][] TILE_NAMES;
+    private static final ActorType[] TILE_TYPES;
+
+    static {
+        Map<String, ActorType> tiles = Controller.getStrToActorTypeDict();
+        TILE_NAMES = new char[tiles.size()][];
+        TILE_TYPES = new ActorType[tiles.size()];
+        int i = 0;
+        for (Map.Entry<String, ActorType> entry : tiles.entrySet()) {
+            TILE_NAMES[i] = entry.getKey().toCharArray();
+            TILE_TYPES[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Thrown when a file is valid xml, but not a map file.
+     */
+    public static class InvalidMapException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates the exception.
+         * @param message: what is wrong with the map file
+         */
+        public InvalidMapException(String message) {
+            super("Invalid map file: " + message);
+        }
+    }
+
+    private final XMLStreamReader reader;
+    private ActorType[][] map = null;
+    private String width = null;
+    private String height = null;
+    private int y = -1;
+    private int x = 0;
+    // the first structural error met, reported once the whole file is read
+    private String error = null;
+
+    /* the text of the element being read (a cell, width or height), reused */
+    private char[] text = new char[32];
+    private int textLength = 0;
+
+    private MapFileParser(XMLStreamReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the types of a map file.
+     * @param file: the map file (should be an xml file)
+     * @return the types, by row then by column.
+     * @throws IOException if the file cannot be read, InvalidMapException if it is not a map.
+     * @throws JDOMException if the file is not valid xml.
+     */
+    public static ActorType[][] parse(File file) throws IOException, JDOMException {
+        if (!file.canRead() || !file.exists())
+            throw new IOException("Cannot read the file.");
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+            try {
+                return new MapFileParser(reader).read();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new JDOMException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the whole file.
+     * @return the types, by row then by column.
+     * @throws XMLStreamException if the file is not valid xml.
+     * @throws InvalidMapException if the file is not a map.
+     */
+    private ActorType[][] read() throws XMLStreamException, InvalidMapException {
+        int depth = 0;
+        // the element whose text is collected, at depth 3 (null if none)
+        String collecting = null;
+        boolean inSize = false;
+        boolean inRow = false;
+        boolean sizeRead = false;
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (depth == 2) {
+                        inSize = name.equals("size") && !sizeRead;
+                        inRow = name.equals("row");
+                        if (inRow)
+                            startRow();
+                    } else if (depth == 3 && (inSize && (name.equals("width") || name.equals("height"))
+                            || inRow && name.equals("cell"))) {
+                        collecting = name;
+                        textLength = 0;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (collecting != null && depth == 3)
+                        appendText();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (depth == 3 && collecting != null) {
+                        endText(collecting);
+                        collecting = null;
+                    } else if (depth == 2 && inSize) {
+                        inSize = false;
+                        sizeRead = true;
+                    }
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (map == null && error == null)
+            setError("no size");
+        if (error != null)
+            throw new InvalidMapException(error);
+        return map;
+    }
+
+    /**
+     * Starts a row, creating the map from its size at the first row.
+     */
+    private void startRow() {
+        if (map == null && error == null) {
+            if (width == null || height == null) {
+                setError("no size");
+            } else {
+                try {
+                    map = new ActorType[Integer.parseInt(height)][Integer.parseInt(width)];
+                } catch (NumberFormatException e) {
+                    setError("invalid size");
+                }
+            }
+        }
+        y++;
+        x = 0;
+        if (map != null && y >= map.length)
+            setError("more rows than its height");
+    }
+
+    /**
+     * Appends the current text event to the text being collected.
+     * @throws XMLStreamException if the text cannot be read.
+     */
+    private void appendText() throws XMLStreamException {
+        int length = reader.getTextLength();
+        if (textLength + length > text.length) {
+            char[] larger = new char[Math.max(2 * text.length, textLength + length)];
+            System.arraycopy(text, 0, larger, 0, textLength);
+            text = larger;
+        }
+        reader.getTextCharacters(0, text, textLength, length);
+        textLength += length;
+    }
+
+    /**
+     * Uses the collected text of an element.
+     * @param elementName: name of the element
+     */
+    private void endText(String elementName) {
+        if (elementName.equals("cell")) {
+            if (map != null && y < map.length) {
+                if (x < map[y].length)
+                    map[y][x] = lookUpTile();
+                else
+                    setError("more cells than its width in row " + (y + 1));
+            }
+            x++;
+        } else if (elementName.equals("width")) {
+            if (width == null)
+                width = new String(text, 0, textLength);
+        } else if (height == null) {
+            height = new String(text, 0, textLength);
+        }
+    }
+
+    /**
+     * Looks up the type of the tile named by the collected text.
+     * @return the corresponding type, SPACE if none.
+     */
+    private ActorType lookUpTile() {
+        for (int i = 0; i < TILE_NAMES.length; i++) {
+            char[] tileName = TILE_NAMES[i];
+            if (tileName.length != textLength)
+                continue;
+            int c = 0;
+            while (c < textLength && tileName[c] == text[c])
+                c++;
+            if (c == textLength)
+                return TILE_TYPES[i];
+        }
+        return CellType.SPACE;
+    }
+
+    /**
+     * Records a structural error, unless one was met already.
+     * @param message: description of the error
+     */
+    private void setError(String message) {
+        if (error == null)
+            error = message;
+    }
+}
@@ -0,0 +1,99 @@
+package game.Maps;
+
+import game.ActorType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The tiles of a raw-encoded binary map file (see BinaryMapFile), read directly from the memory-mapped file
+ * instead of being loaded on the heap: opening a map costs almost nothing, whatever its size,
+ * and only the parts of the map in use are paged in.
+ * The file is mapped in segments of whole rows, as a single mapping is limited to 2GB.
+ * Safe to read from several threads.
+ */
+class MappedTileGrid {
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private final int width;
+    private final int height;
+    private final int rowsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private MappedTileGrid(int width, int height, MappedByteBuffer[] segments, int rowsPerSegment) {
+        this.width = width;
+        this.height = height;
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+    }
+
+    /**
+     * Maps a binary map file, if it is raw-encoded.
+     * @param file: the binary map file
+     * @return the mapped tiles, or null if the file is run-length encoded (so it has to be read on the heap).
+     * @throws IOException if the file cannot be read, or is not a valid binary map file.
+     */
+    static MappedTileGrid open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < BinaryMapFile.HEADER_SIZE)
+                throw new IOException("Truncated binary map file: " + file.getName());
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryMapFile.HEADER_SIZE);
+            BinaryMapFile.Header info = BinaryMapFile.readHeader(header);
+            if (info.encoding != BinaryMapFile.RAW)
+                return null;
+            if (channel.size() < BinaryMapFile.HEADER_SIZE + (long) info.width * info.height)
+                throw new IOException("Truncated binary map file: " + file.getName());
+
+            // the mappings stay valid once the channel is closed
+            int rowsPerSegment = (int) Math.min(info.height, MAX_SEGMENT_SIZE / info.width);
+            MappedByteBuffer[] segments = new MappedByteBuffer[(info.height + rowsPerSegment - 1) / rowsPerSegment];
+            for (int i = 0; i < segments.length; i++) {
+                int rows = Math.min(rowsPerSegment, info.height - i * rowsPerSegment);
+                long start = BinaryMapFile.HEADER_SIZE + (long) i * rowsPerSegment * info.width;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, (long) rows * info.width);
+            }
+            return new MappedTileGrid(info.width, info.height, segments, rowsPerSegment);
+        }
+    }
+
+    /**
+     * @return the number of columns.
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the type of a tile.
+     * @param x: x coordinate of the tile
+     * @param y: y coordinate of the tile
+     * @return the type of the tile (SPACE for an unknown tile code).
+     */
+    ActorType getTypeAt(int x, int y) {
+        // absolute reads only, as the buffers are shared between threads
+        return BinaryMapFile.typeOfByte(segments[y / rowsPerSegment].get((y % rowsPerSegment) * width + x));
+    }
+
+    /**
+     * Copies the types of a row of tiles.
+     * @param y: y coordinate of the row
+     * @param row: the array to copy the types to, of the map's width
+     */
+    void copyRow(int y, ActorType[] row) {
+        MappedByteBuffer segment = segments[y / rowsPerSegment];
+        int start = (y % rowsPerSegment) * width;
+        for (int x = 0; x < row.length; x++)
+            row[x] = BinaryMapFile.typeOfByte(segment.get(start + x));
+    }
+}
@@ -4,10 +4,9 @@ import ch.aplu.jgamegrid.Location;
 import game.ActorType;
 import game.Items.CellType;
 import game.Level;
+import game.Workers.MapLocations;
 import game.Workers.MapReader;
 
-import java.util.HashMap;
-
 /**
  * Grid for a PacMan Level, which preserves the original game's setting.
  */
@@ -97,13 +96,7 @@ public class PacManGameGrid implements PacManMap {
 
     /** {@inheritDoc} */
     @Override
-    public HashMap<Integer, ActorType> readMyItemLocations(MapReader reader) {
-        return reader.getItemLocations(this);
-    }
-
-    /** {@inheritDoc} */
-    @Override
-    public HashMap<Integer, ActorType> readMyCharacterLocations(MapReader reader) {
-        return reader.getCharacterLocations(this);
+    public MapLocations readMyLocations(MapReader reader) {
+        return reader.getLocations(this);
     }
 }
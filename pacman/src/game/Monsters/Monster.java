@@ -7,20 +7,22 @@ import game.MovingActor;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Timer;
-import java.util.TimerTask;
 
 /**
  * Abstract class for a monster.
  */
 
 public abstract class Monster extends MovingActor {
+    private final CharacterType characterType;
+
     /**
      * Creates a monster with one sprite image.
      * @param seed: the seed for random behaviors of the monster
+     * @param type: the character type of the monster
      */
     public Monster(int seed, CharacterType type) {
         super(false, 1, seed, type);
+        this.characterType = type;
     }
 
     /**
@@ -30,8 +32,10 @@ public abstract class Monster extends MovingActor {
     @Override
     public synchronized void move() {
         setHorzMirror(!(getDirection() > 150) || !(getDirection() < 210));
+        Location from = getLocation();
         addVisitedList(getNextMoveLocation());
         super.move(); // actual move
+        ((Level) gameGrid).getMonsterOccupancy().move(from, getLocation());
 
         ((Level) gameGrid).getGameCallback().monsterLocationChanged(this);
     }
@@ -44,6 +48,14 @@ public abstract class Monster extends MovingActor {
         return getClass().getSimpleName();
     }
 
+    /**
+     * Gets the character type of the monster.
+     * @return the monster type.
+     */
+    public CharacterType getCharacterType() {
+        return characterType;
+    }
+
     /**
      * Gets all 8 neighbor locations, sorted based on the comparator.
      * @param comparator: Comparator on which the sorting is based
@@ -0,0 +1,50 @@
+package game.Monsters;
+
+import ch.aplu.jgamegrid.Location;
+import game.CharacterType;
+import game.Level;
+import game.Steerable;
+
+/**
+ * The walking approach of a type of monster,
+ * independent of whether the monster is an actor on the game grid or a simulated character.
+ */
+public interface MonsterBehaviour {
+
+    /**
+     * Sets the next direction for the monster.
+     * @param monster: the monster to be steered
+     * @param pacLocation: the current location of the PacMan.
+     */
+    void setNextDirection(Steerable monster, Location pacLocation);
+
+    /**
+     * Gets the time the monster waits before moving, when the game starts.
+     * @return the waiting time in seconds.
+     */
+    default int getWaitingTime() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of simulation cycles the monster waits before moving, when the game starts.
+     * @return the waiting time in simulation cycles.
+     */
+    default int getWaitingCycles() {
+        final int SECOND_TO_MILLISECONDS = 1000;
+        return getWaitingTime() * SECOND_TO_MILLISECONDS / Level.SIMULATION_PERIOD;
+    }
+
+    /**
+     * Gets the behaviour of the given type of monster.
+     * @param type: the character type of the monster
+     * @return the corresponding behaviour, null if the type is not a monster.
+     */
+    static MonsterBehaviour forType(CharacterType type) {
+        return switch (type) {
+            case M_TROLL -> new TrollBehaviour();
+            case M_TX5 -> new TX5Behaviour();
+            default -> null;
+        };
+    }
+}
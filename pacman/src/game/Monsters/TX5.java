@@ -1,32 +1,23 @@
 package game.Monsters;
 
-import ch.aplu.jgamegrid.Location;
 import game.CharacterType;
 import game.Level;
-
-import java.util.Timer;
-import java.util.TimerTask;
+import game.utility.TickScheduler;
 
 public class TX5 extends Monster {
-    private static final int WAITING_TIME = 5;
+    private final MonsterBehaviour behaviour = new TX5Behaviour();
     private boolean waiting = true;
 
     /**
      * Creates a TX5.
      * @param seed: the seed for random behaviors of the monster
+     * @param scheduler: the scheduler of the level, to stop waiting after a while when the game starts
      */
-    public TX5(int seed) {
+    public TX5(int seed, TickScheduler scheduler) {
         super(seed, CharacterType.M_TX5);
 
-        // Set up the timer for waiting, when the game starts
-        Timer timer = new Timer();
-        int SECOND_TO_MILLISECONDS = 1000;
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                waiting = false;
-            }
-        }, (long) WAITING_TIME * SECOND_TO_MILLISECONDS);
+        // wait for a number of simulation cycles, when the game starts
+        scheduler.schedule(behaviour.getWaitingCycles(), () -> waiting = false);
     }
 
     /**
@@ -38,23 +29,16 @@ public class TX5 extends Monster {
      */
     @Override
     protected void setNextDirection() {
-        double oldDirection = getDirection();
-        Location pacLocation = ((Level) gameGrid).getPlayer().getLocation();
-        // Try to move towards the PacActor
-        setDirectionToTarget(pacLocation);
-        if (!isVisited(getNextMoveLocation()) && isMoveValid())
-            return;
-        // Second resort: random walk
-        setRandomMoveDirection(oldDirection);
+        behaviour.setNextDirection(this, ((Level) gameGrid).getPlayer().getLocation());
     }
 
     /**
-     * Called in every simulation iteration.
+     * Called in every simulation cycle the TX5 is due to act.
      */
     @Override
-    public void act() {
+    protected void step() {
         if (waiting) // do nothing
             return;
-        super.act();
+        super.step();
     }
 }
@@ -0,0 +1,33 @@
+package game.Monsters;
+
+import ch.aplu.jgamegrid.Location;
+import game.Steerable;
+
+/**
+ * TX5's walk approach:
+ * 1. Walk towards PacMan if it can,
+ *    provided that the location is valid and not recently visited.
+ * 2. Otherwise, randomly walk like Troll.
+ * It only starts walking a while after the game starts.
+ */
+public class TX5Behaviour implements MonsterBehaviour {
+    private static final int WAITING_TIME = 5;
+
+    /** {@inheritDoc} */
+    @Override
+    public void setNextDirection(Steerable monster, Location pacLocation) {
+        double oldDirection = monster.getDirection();
+        // Try to move towards the PacActor
+        monster.setDirectionToTarget(pacLocation);
+        if (!monster.isVisited(monster.getNextMoveLocation()) && monster.isMoveValid())
+            return;
+        // Second resort: random walk
+        monster.setRandomMoveDirection(oldDirection);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getWaitingTime() {
+        return WAITING_TIME;
+    }
+}
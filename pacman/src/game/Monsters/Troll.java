@@ -1,12 +1,13 @@
 package game.Monsters;
 
 import game.CharacterType;
+import game.Level;
 
 /**
  * Troll - a special type of monster that walks randomly.
  */
 public class Troll extends Monster {
-
+    private final MonsterBehaviour behaviour = new TrollBehaviour();
 
     /**
      * Creates a Troll.
@@ -22,6 +23,6 @@ public class Troll extends Monster {
      */
     @Override
     protected void setNextDirection() {
-        setRandomMoveDirection(getDirection());
+        behaviour.setNextDirection(this, ((Level) gameGrid).getPlayer().getLocation());
     }
 }
@@ -0,0 +1,16 @@
+package game.Monsters;
+
+import ch.aplu.jgamegrid.Location;
+import game.Steerable;
+
+/**
+ * Troll's walk approach: random walking.
+ */
+public class TrollBehaviour implements MonsterBehaviour {
+
+    /** {@inheritDoc} */
+    @Override
+    public void setNextDirection(Steerable monster, Location pacLocation) {
+        monster.setRandomMoveDirection(monster.getDirection());
+    }
+}
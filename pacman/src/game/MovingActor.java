@@ -2,20 +2,21 @@ package game;
 
 import ch.aplu.jgamegrid.Actor;
 import ch.aplu.jgamegrid.Location;
-import game.Items.Item;
-import game.Items.Portal;
+import game.Workers.ItemManager;
+import game.utility.RecentlyVisitedList;
 
-import java.util.*;
+import java.util.Random;
 
 /**
  * An actor that can move.
  */
 
-public abstract class MovingActor extends Actor {
+public abstract class MovingActor extends Actor implements Steerable {
 
-    private final ArrayList<Location> recentlyVisitedList = new ArrayList<>();
-    private static final int MAX_VISITED_LIST_LEN = 10;
+    private final RecentlyVisitedList recentlyVisitedList = new RecentlyVisitedList();
     private final Random randomiser;
+    // acts once every `slowDown` cycles of the level's clock
+    private int slowDown = 1;
 
     /**
      * Creates a moving actor based on one or more sprite images.
@@ -28,7 +29,7 @@ public abstract class MovingActor extends Actor {
         this.randomiser = new Random(seed);
     }
 
-    /* Some common movement logics in all moving actors */
+    /* Some common movement logics in all moving actors (see Steerable) */
 
     /**
      * Checks if the move is valid.
@@ -36,15 +37,7 @@ public abstract class MovingActor extends Actor {
      */
     @Override
     public synchronized boolean isMoveValid() {
-        return isValidLocation(getFirstCell());
-    }
-
-    /**
-     * Gets the first cell in the set direction.
-     * @return the first cell in that direction.
-     */
-    protected Location getFirstCell() {
-        return getLocation().getNeighbourLocation(getDirection());
+        return Steerable.super.isMoveValid();
     }
 
     /**
@@ -56,60 +49,55 @@ public abstract class MovingActor extends Actor {
         return getLocation().getNeighbourLocation(dir);
     }
 
-    /**
-     * Checks if the location is valid (i.e. in grid and not a wall).
-     * @param loc: location to be checked
-     * @return true if it's valid, false otherwise.
-     */
-    protected boolean isValidLocation(Location loc) {
-        return isInBound(loc) && !isWallAt(loc);
+    /** {@inheritDoc} */
+    @Override
+    public ItemManager getItemManager() {
+        return ((Level) gameGrid).getSettingManager().getItemManager();
     }
 
-    /* for simplicity of reference */
-    /**
-     * Checks whether the given location is not a wall.
-     * @param loc: location to be checked
-     * @return true if it's a wall, false otherwise.
-     */
-    protected boolean isWallAt(Location loc) {
-        return ((Level) gameGrid).getSettingManager().isWallAt(loc);
+    /** {@inheritDoc} */
+    @Override
+    public Random getRandomiser() {
+        return randomiser;
     }
 
     /**
-     * Checks if the location is in bound of the grid.
-     * @param loc: location to be checked
-     * @return true if it's in bound, false otherwise.
+     * Sets a direction for the actor.
+     * Should be overridden to implement the specific walking approach.
      */
-    protected boolean isInBound(Location loc) {
-        return ((Level) gameGrid).getSettingManager().isInBound(loc);
-    }
+    protected abstract void setNextDirection();
 
     /**
-     * Sets the direction (compass direction restricted to 4 sectors)
-     * to the target location.
-     * @param target: the target location
+     * Sets the slow down, counted in the cycles of the level's simulation clock
+     * rather than in the game grid's step counts (which then makes the actor act in every cycle).
+     * @param slowDown: the number of simulation cycles per act.
      */
-    protected void setDirectionToTarget(Location target) {
-        Location.CompassDirection compassDir =
-                getLocation().get4CompassDirectionTo(target);
-        setDirection(compassDir);
+    @Override
+    public synchronized void setSlowDown(int slowDown) {
+        this.slowDown = Math.max(1, slowDown);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public synchronized int getSlowDown() {
+        return slowDown;
+    }
 
     /**
-     * Sets a direction for the actor.
-     * Should be overridden to implement the specific walking approach.
+     * Called in every simulation cycle: steps if due in this cycle (see SimulationClock.isDue()).
      */
-    protected abstract void setNextDirection();
+    @Override
+    public void act() {
+        if (((Level) gameGrid).getClock().isDue(slowDown))
+            step();
+    }
 
     /**
-     * Called in every simulation iteration.
+     * Called in every simulation cycle the actor is due to act.
      */
-    @Override
-    public void act() {
+    protected void step() {
         this.setNextDirection(); // ensures valid direction
         this.move();
-        super.act();
     }
 
     @Override
@@ -119,56 +107,21 @@ public abstract class MovingActor extends Actor {
 
     /**
      * Gets the target location of the next move().
-     * If the next move is the portal, the returned value will be the partner of the portal.
-     * If the move is valid, the location is determined by the set direction.
-     * If not, the location is the current location (i.e. actor does not move).
+     * (See Steerable.getNextMoveLocation() for the portal jumps.)
      * @return the target location.
      */
     @Override
     public synchronized Location getNextMoveLocation() {
-        Item item = ((Level) this.gameGrid).getSettingManager().getItem(getFirstCell());
-        if (item instanceof Portal) {
-            return ((Portal) item).getPartnerLocation();
-        }
-
-        if (isMoveValid()) // in case no directions are valid
-            return super.getNextMoveLocation();
-        return getLocation();
-    }
-
-    /**
-     * Sets the direction according to a random walk approach
-     * @param oldDirection: original direction
-     */
-    protected void setRandomMoveDirection(double oldDirection) {
-        final int sign = randomiser.nextDouble() < 0.5 ? 1 : -1;
-
-        setDirection(oldDirection);
-        // randomly turn left or right
-        turn(sign * 90);
-        if (isMoveValid())  return;
-
-        // turn back to original direction
-        setDirection(oldDirection);
-        if (isMoveValid())  return;
-
-        // turn the other side
-        turn(-sign * 90);
-        if (isMoveValid())  return;
-
-        // go backward
-        setDirection(oldDirection);
-        turn(180); // turn again to backward.
+        return Steerable.super.getNextMoveLocation();
     }
 
     /**
      * Adds the given location to the recently visited list.
      * @param location: location to be added
      */
-    protected void addVisitedList(Location location) {
+    @Override
+    public void addVisitedList(Location location) {
         recentlyVisitedList.add(location);
-        if (recentlyVisitedList.size() == MAX_VISITED_LIST_LEN)
-            recentlyVisitedList.remove(0);
     }
 
     /**
@@ -176,7 +129,8 @@ public abstract class MovingActor extends Actor {
      * @param location: the location to be checked
      * @return true if it's (recently) visited, false otherwise.
      */
-    protected boolean isVisited(Location location) {
+    @Override
+    public boolean isVisited(Location location) {
         return recentlyVisitedList.contains(location);
     }
 
@@ -0,0 +1,294 @@
+package game.Player;
+
+import ch.aplu.jgamegrid.Location;
+import game.LocationExpert;
+import game.Workers.DangerOverlay;
+import game.Workers.NavGraph;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * An optimal path finding strategy for a single sink (e.g. EditorMap.canReach()), using A* search
+ * over integer cell indices, with a binary heap of primitive keys as the open set.
+ * A step costs 1, plus the danger cost when stepping into a dangerous cell whose danger is weighted
+ * (the cells whose danger is avoided are treated as walls), so the path found is the cheapest one.
+ *
+ * The heuristic is the Manhattan distance to the sink, unless going through a portal can be shorter:
+ * the distance to the nearest portal, plus the distance from the nearest portal landing to the sink.
+ * Both never overestimate the remaining cost, whichever portal is taken, so the heuristic stays admissible
+ * (and consistent, thus each cell is settled once).
+ * With a predicate rather than a sink, there is nothing to aim at and the search is a plain Dijkstra search.
+ */
+public class AStarPathFindingStrategy implements PathFindingStrategy {
+
+    /* markers in the parents array */
+    private static final int NO_PARENT = -1;
+    private static final int ROOT = -2;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkedList<Location> findPath(Location source, LocationPredicate predicate,
+                                         LocationExpert locationExpert, DangerOverlay danger) {
+        return search(source, NavGraph.NO_CELL, predicate, locationExpert, danger);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkedList<Location> findPath(Location source, Location sink, LocationExpert locationExpert) {
+        return findPath(source, sink, locationExpert, null);
+    }
+
+    /**
+     * Finds the cheapest path to the specified sink, keeping away from the monsters.
+     *
+     * @param source: The source location.
+     * @param sink: The destination.
+     * @param locationExpert: The information expert for the game's item locations.
+     * @param danger: The danger zones of the monsters on the map (null if none).
+     *
+     * @return a LinkedList representing the optimal path,
+     *         otherwise null on failure or no path found.
+     */
+    public LinkedList<Location> findPath(Location source, Location sink,
+                                         LocationExpert locationExpert, DangerOverlay danger) {
+        final int sinkIndex = locationExpert.getNavGraph().getIndex(sink);
+        if (sinkIndex == NavGraph.NO_CELL)
+            return null;
+        return search(source, sinkIndex, (location, expert) -> location.equals(sink), locationExpert, danger);
+    }
+
+    /**
+     * Searches the cheapest path, settling the cells by increasing estimated total cost.
+     * @param source: the source location
+     * @param sinkIndex: index of the sink cell, NO_CELL to search by the predicate only
+     * @param predicate: the predicate for a location to be considered a destination
+     * @param locationExpert: the information expert for the game level's item locations
+     * @param danger: the danger zones of the monsters (null if none)
+     * @return the cheapest path, null on failure or empty.
+     */
+    private LinkedList<Location> search(Location source, int sinkIndex, LocationPredicate predicate,
+                                        LocationExpert locationExpert, DangerOverlay danger) {
+        final NavGraph graph = locationExpert.getNavGraph();
+        final int sourceIndex = graph.getIndex(source);
+        if (sourceIndex == NavGraph.NO_CELL)
+            return null;
+
+        final int cellsCount = graph.getCellsCount();
+        final PortalAwareHeuristic heuristic =
+                new PortalAwareHeuristic(graph, locationExpert.getHorizontalCellsCount(), sinkIndex);
+
+        final int[] costs = new int[cellsCount];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        final boolean[] settled = new boolean[cellsCount];
+        // parents[i] is the cell from which cell i is reached the cheapest,
+        // portalEntries[i] the portal then stepped on to land on cell i (NO_CELL if none)
+        final int[] parents = new int[cellsCount];
+        Arrays.fill(parents, NO_PARENT);
+        final int[] portalEntries = new int[cellsCount];
+        Arrays.fill(portalEntries, NavGraph.NO_CELL);
+        final IntMinHeap open = new IntMinHeap(cellsCount);
+
+        costs[sourceIndex] = 0;
+        parents[sourceIndex] = ROOT;
+        open.add(sourceIndex, priorityOf(0, heuristic.estimate(sourceIndex)));
+
+        while (!open.isEmpty()) {
+            final int vertexIndex = open.remove();
+            if (settled[vertexIndex])
+                continue; // queued again when reached cheaper
+            settled[vertexIndex] = true;
+
+            final boolean isDestination = sinkIndex != NavGraph.NO_CELL ? vertexIndex == sinkIndex
+                    : predicate.satisfies(graph.getIndexConverter().getLocationByIndex(vertexIndex), locationExpert);
+            if (isDestination) {
+                LinkedList<Location> result =
+                        IndexedPathFindingStrategy.buildCheapestPath(vertexIndex, parents, portalEntries, graph);
+                // If empty, the path-finding is assumed to have failed (e.g. the source is the destination).
+                return result.isEmpty() ? null : result;
+            }
+
+            for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+                final int neighbour = graph.getNeighbour(vertexIndex, direction);
+                if (neighbour == NavGraph.NO_CELL || (danger != null && danger.isAvoided(neighbour)))
+                    continue;
+                // the cost is paid on the cell stepped on, then a portal jumps to its partner
+                final int landing = graph.getLanding(vertexIndex, direction);
+                final int newCost = costs[vertexIndex] + (danger != null ? danger.getStepCost(neighbour) : 1);
+                if (settled[landing] || newCost >= costs[landing])
+                    continue;
+                costs[landing] = newCost;
+                parents[landing] = vertexIndex;
+                portalEntries[landing] = landing == neighbour ? NavGraph.NO_CELL : neighbour;
+                open.add(landing, priorityOf(newCost, heuristic.estimate(landing)));
+            }
+        }
+
+        // Path not found
+        return null;
+    }
+
+    /**
+     * Gets the priority of a cell in the open set: by lowest estimated total cost,
+     * then by highest cost so far (i.e. the cell nearest to the sink, by the estimate).
+     * @param cost: the cost from the source to the cell
+     * @param estimate: the estimated cost from the cell to the sink
+     * @return the priority of the cell, the lowest first.
+     */
+    private static long priorityOf(int cost, int estimate) {
+        return ((long) (cost + estimate) << Integer.SIZE) - cost;
+    }
+
+    /**
+     * The portal-aware estimate of the cost from a cell to the sink,
+     * i.e. a lower bound of the number of steps to the sink.
+     */
+    private static class PortalAwareHeuristic {
+        private static final int NO_PORTAL = Integer.MAX_VALUE;
+
+        private final int horizontalCellsCount;
+        private final boolean hasSink;
+        private final int sinkX;
+        private final int sinkY;
+        // the coordinates of the portals (x, y pairs)
+        private final int[] portalCoordinates;
+        // the distance from the portal landing nearest to the sink, to the sink (NO_PORTAL if none)
+        private final int landingToSink;
+
+        /**
+         * Creates the heuristic of a search.
+         * @param graph: the navigation graph being searched
+         * @param horizontalCellsCount: the number of horizontal cells
+         * @param sinkIndex: index of the sink cell, NO_CELL if there is no single sink (the estimate is then 0).
+         */
+        private PortalAwareHeuristic(NavGraph graph, int horizontalCellsCount, int sinkIndex) {
+            this.horizontalCellsCount = horizontalCellsCount;
+            this.hasSink = sinkIndex != NavGraph.NO_CELL;
+            this.sinkX = hasSink ? sinkIndex % horizontalCellsCount : 0;
+            this.sinkY = hasSink ? sinkIndex / horizontalCellsCount : 0;
+
+            final int[] portals = hasSink ? graph.getPortals() : new int[0];
+            this.portalCoordinates = new int[2 * portals.length];
+            int nearestLanding = NO_PORTAL;
+            for (int i = 0; i < portals.length; i++) {
+                portalCoordinates[2 * i] = portals[i] % horizontalCellsCount;
+                portalCoordinates[2 * i + 1] = portals[i] / horizontalCellsCount;
+                nearestLanding = Math.min(nearestLanding, distanceToSink(graph.getPortalPartner(portals[i])));
+            }
+            this.landingToSink = nearestLanding;
+        }
+
+        /**
+         * Estimates the cost from a cell to the sink.
+         * @param cell: index of the cell
+         * @return the lowest of the Manhattan distance to the sink,
+         *         and of the distance to the sink through the nearest portal and landing.
+         */
+        private int estimate(int cell) {
+            if (!hasSink)
+                return 0;
+            final int direct = distanceToSink(cell);
+            if (landingToSink == NO_PORTAL || landingToSink >= direct)
+                return direct;
+
+            final int x = cell % horizontalCellsCount;
+            final int y = cell / horizontalCellsCount;
+            int nearestPortal = direct - landingToSink; // only nearer portals make the estimate lower
+            for (int i = 0; i < portalCoordinates.length && nearestPortal > 0; i += 2)
+                nearestPortal = Math.min(nearestPortal,
+                        Math.abs(portalCoordinates[i] - x) + Math.abs(portalCoordinates[i + 1] - y));
+            return nearestPortal + landingToSink;
+        }
+
+        /**
+         * Gets the Manhattan distance from a cell to the sink.
+         * @param cell: index of the cell
+         * @return the number of steps to the sink, if there were no walls.
+         */
+        private int distanceToSink(int cell) {
+            return Math.abs(cell % horizontalCellsCount - sinkX) + Math.abs(cell / horizontalCellsCount - sinkY);
+        }
+    }
+
+    /**
+     * A min-heap of cell indices keyed by priority, backed by flat primitive arrays (grown when full).
+     * A cell queued again with a lower priority is not removed from the heap;
+     * the stale entry is skipped by the search once the cell is settled.
+     */
+    private static class IntMinHeap {
+
+        private int[] cells;
+        private long[] priorities;
+        private int size = 0;
+
+        /**
+         * Creates an empty heap.
+         * @param capacity: the number of cells that can be queued at the same time before growing.
+         */
+        public IntMinHeap(int capacity) {
+            this.cells = new int[Math.max(capacity, 1)];
+            this.priorities = new long[cells.length];
+        }
+
+        /**
+         * Adds a cell to the heap.
+         * @param cell: index of the cell
+         * @param priority: the priority of the cell, the lowest first.
+         */
+        public void add(int cell, long priority) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, 2 * size);
+                priorities = Arrays.copyOf(priorities, 2 * size);
+            }
+            // sift up from the new leaf
+            int position = size++;
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (priorities[parent] <= priority)
+                    break;
+                cells[position] = cells[parent];
+                priorities[position] = priorities[parent];
+                position = parent;
+            }
+            cells[position] = cell;
+            priorities[position] = priority;
+        }
+
+        /**
+         * Removes the cell of lowest priority.
+         * @return the index of the removed cell.
+         */
+        public int remove() {
+            final int top = cells[0];
+            final int cell = cells[--size];
+            final long priority = priorities[size];
+            // sift the last leaf down from the root
+            int position = 0;
+            while (2 * position + 1 < size) {
+                int child = 2 * position + 1;
+                if (child + 1 < size && priorities[child + 1] < priorities[child])
+                    child++;
+                if (priority <= priorities[child])
+                    break;
+                cells[position] = cells[child];
+                priorities[position] = priorities[child];
+                position = child;
+            }
+            cells[position] = cell;
+            priorities[position] = priority;
+            return top;
+        }
+
+        /**
+         * Checks if the heap is empty.
+         * @return true if there are no cells queued, false otherwise.
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
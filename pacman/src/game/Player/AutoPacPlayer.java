@@ -1,12 +1,8 @@
 package game.Player;
 
-import ch.aplu.jgamegrid.Location;
-import game.Items.CellType;
-import game.Workers.ItemManager;
 import game.Level;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 
 
 /**
@@ -15,9 +11,7 @@ import java.util.LinkedList;
 public class AutoPacPlayer extends PacPlayer {
 
     /* for preserving the original behavior */
-    private ArrayList<String> propertyMoves;
-
-    // whether the pacActor can move in this simulation iteration
+    private AutoPilot autoPilot = new AutoPilot(new ArrayList<>());
 
     /**
      * Creates a moving actor based on one or more sprite images.
@@ -36,61 +30,8 @@ public class AutoPacPlayer extends PacPlayer {
      */
     @Override
     protected void setNextDirection() {
-        if (!propertyMoves.isEmpty()) {
-            followPropertyMoves();
-            return;
-        }
-
-        // at this stage: either go to a valid pill, or move randomly
-        setShouldMove(true);
-        ItemManager itemManager = ((Level) gameGrid).getSettingManager().getItemManager();
-
-        PathFindingStrategy pathFindingStrategy = new OptimalPathFindingStrategy();
-        LinkedList<Location> path =
-                pathFindingStrategy.findPath(
-                        getLocation(),
-                        (i, expert) -> expert.getTypeAt(i).equals(CellType.PILL) || expert.getTypeAt(i).equals(CellType.GOLD),
-                        itemManager,
-                        ((Level) gameGrid).getMonsters()
-                );
-
-        if (path != null && !path.isEmpty()) {
-            Location target = path.remove(0);
-            assert getLocation().getDistanceTo(target) == 1;
-            setDirectionToTarget(target);
-            return;
-        } else {
-            path = pathFindingStrategy.findPath(
-                    this.getLocation(),
-                    (i, expert) -> expert.getTypeAt(i).equals(CellType.PILL) || expert.getTypeAt(i).equals(CellType.GOLD),
-                    itemManager
-            );
-
-            if (path != null && !path.isEmpty()) {
-                Location target = path.remove(0);
-                assert getLocation().getDistanceTo(target) == 1;
-                setDirectionToTarget(target);
-                return;
-            }
-        }
-
-        setRandomMoveDirection(getDirection());
-    }
-
-    /**
-     * Sets the direction according to moves from the properties file.
-     */
-    private void followPropertyMoves() {
-        String currentMove = propertyMoves.remove(0);
-        switch (currentMove) {
-            case "R" -> turn(90);
-            case "L" -> turn(-90);
-            case "M" -> {
-                if (isMoveValid()) {
-                    setShouldMove(true);
-                }
-            }
-        }
+        Level level = (Level) gameGrid;
+        setShouldMove(autoPilot.setNextDirection(this, level.getSettingManager().getItemManager(), level.getDangerOverlay()));
     }
 
     /**
@@ -98,6 +39,6 @@ public class AutoPacPlayer extends PacPlayer {
      * @param propertyMoves: ArrayList of Strings, representing the property moves.
      */
     public void setPropertyMoves(ArrayList<String> propertyMoves) {
-        this.propertyMoves = propertyMoves;
+        this.autoPilot = new AutoPilot(propertyMoves);
     }
 }
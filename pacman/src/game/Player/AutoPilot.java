@@ -0,0 +1,113 @@
+package game.Player;
+
+import ch.aplu.jgamegrid.Location;
+import game.Items.CellType;
+import game.Steerable;
+import game.Workers.DangerOverlay;
+import game.Workers.ItemManager;
+import game.Workers.NavGraph;
+import game.Workers.PillDistanceField;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * The steering of an auto PacPlayer:
+ * follows the moves from the properties file first, then goes for the closest pill.
+ * Shared by the AutoPacPlayer on the game grid and the PacPlayer of a headless simulation.
+ */
+public class AutoPilot {
+
+    /* for preserving the original behavior */
+    private final ArrayList<String> propertyMoves;
+
+    /**
+     * Creates an auto pilot.
+     * @param propertyMoves: ArrayList of Strings, representing the property moves.
+     */
+    public AutoPilot(ArrayList<String> propertyMoves) {
+        this.propertyMoves = propertyMoves;
+    }
+
+    /**
+     * Sets the next (valid) direction of the player.
+     * @param player: the player to be steered
+     * @param itemManager: the item manager of the player's level
+     * @param danger: the danger zones of the monsters to keep away from
+     * @return true if the player should move in this update, false otherwise.
+     */
+    public boolean setNextDirection(Steerable player, ItemManager itemManager, DangerOverlay danger) {
+        if (!propertyMoves.isEmpty()) {
+            return followPropertyMoves(player);
+        }
+
+        // at this stage: either go to a valid pill, or move randomly
+        NavGraph graph = itemManager.getNavGraph();
+        PillDistanceField distanceField = itemManager.getPillDistanceField();
+
+        int cell = graph.getIndex(player.getLocation());
+        int direction = cell == NavGraph.NO_CELL ? PillDistanceField.NO_DIRECTION : distanceField.getDownhillDirection(cell);
+        if (direction == PillDistanceField.NO_DIRECTION) {
+            // no pill can be reached
+            player.setRandomMoveDirection(player.getDirection());
+            return true;
+        }
+
+        // by default, step towards the closest pill
+        Location target = graph.getIndexConverter().getLocationByIndex(graph.getNeighbour(cell, direction));
+        if (!isDownhillPathClear(cell, graph, distanceField, danger)) {
+            // monsters in the way, search for a path around them
+            LinkedList<Location> path =
+                    new IndexedPathFindingStrategy().findPath(
+                            player.getLocation(),
+                            (i, expert) -> expert.getTypeAt(i).equals(CellType.PILL) || expert.getTypeAt(i).equals(CellType.GOLD),
+                            itemManager,
+                            danger
+                    );
+            if (path != null && !path.isEmpty())
+                target = path.remove(0);
+        }
+
+        assert player.getLocation().getDistanceTo(target) == 1;
+        player.setDirectionToTarget(target);
+        return true;
+    }
+
+    /**
+     * Checks if the next steps down the distance field, towards the closest pill, keep away from the monsters.
+     * Only the steps within the danger radius are checked (the monsters move on meanwhile),
+     * so that each update takes constant time whatever the distance to the pill.
+     * @param cell: index of the starting cell
+     * @param graph: the navigation graph of the level
+     * @param distanceField: the distance field to the pills
+     * @param danger: the danger zones of the monsters.
+     * @return true if none of the next steps is dangerous, false otherwise.
+     */
+    private boolean isDownhillPathClear(int cell, NavGraph graph, PillDistanceField distanceField,
+                                        DangerOverlay danger) {
+        for (int step = 0; step < Math.max(1, danger.getMaxRadius()) && distanceField.getDistance(cell) > 0; step++) {
+            int direction = distanceField.getDownhillDirection(cell);
+            if (danger.isDangerous(graph.getNeighbour(cell, direction)))
+                return false;
+            cell = graph.getLanding(cell, direction);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the direction according to moves from the properties file.
+     * @param player: the player to be steered
+     * @return true if the player should move in this update, false otherwise.
+     */
+    private boolean followPropertyMoves(Steerable player) {
+        String currentMove = propertyMoves.remove(0);
+        switch (currentMove) {
+            case "R" -> player.turn(90);
+            case "L" -> player.turn(-90);
+            case "M" -> {
+                return player.isMoveValid();
+            }
+        }
+        return false;
+    }
+}
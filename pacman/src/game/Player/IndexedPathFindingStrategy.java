@@ -0,0 +1,337 @@
+package game.Player;
+
+import ch.aplu.jgamegrid.Location;
+import game.LocationExpert;
+import game.Workers.LocationIndexConverter;
+import game.Workers.DangerOverlay;
+import game.Workers.NavGraph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+
+/**
+ * An optimal path finding strategy, using Breadth-First-Search over integer cell indices.
+ * Explores the cells in the same order as the OptimalPathFindingStrategy (thus gives the same paths),
+ * but runs on the expert's NavGraph and keeps the visited set, the parents and the queue
+ * in flat primitive arrays.
+ * When the danger zones have a cost rather than being avoided, the search becomes a Dijkstra search
+ * over a bucket queue (Dial's algorithm), the step costs being small integers,
+ * and finds the cheapest path instead of the shortest.
+ */
+public class IndexedPathFindingStrategy implements PathFindingStrategy {
+
+    /* markers in the parents array */
+    private static final int NO_PARENT = -1;
+    private static final int ROOT = -2;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkedList<Location> findPath(Location source, LocationPredicate predicate,
+                                         LocationExpert locationExpert, DangerOverlay danger) {
+        final NavGraph graph = locationExpert.getNavGraph();
+        final int sourceIndex = graph.getIndex(source);
+        if (sourceIndex == NavGraph.NO_CELL)
+            return null;
+        if (danger != null && danger.isWeighted())
+            return findCheapestPath(sourceIndex, predicate, locationExpert, danger);
+
+        final int cellsCount = graph.getCellsCount();
+        final LocationIndexConverter indexConverter = graph.getIndexConverter();
+
+        final boolean[] visited = new boolean[cellsCount];
+        // parents[i] is the cell from which cell i was first reached (i.e. the first edge to i)
+        final int[] parents = new int[cellsCount];
+        Arrays.fill(parents, NO_PARENT);
+        // each cell is enqueued at most once, plus at most once more as a portal destination
+        final IntRingBuffer queue = new IntRingBuffer(2 * cellsCount);
+
+        // enqueue the source
+        queue.add(sourceIndex);
+        visited[sourceIndex] = true;
+        parents[sourceIndex] = ROOT;
+
+        final int[] neighbours = new int[NavGraph.NB_DIRECTIONS];
+        final int[] neighbourScores = new int[NavGraph.NB_DIRECTIONS];
+
+        while (!queue.isEmpty()) {
+            // while possible, dequeue
+            final int vertexIndex = queue.remove();
+            final Location vertex = indexConverter.getLocationByIndex(vertexIndex);
+
+            if (predicate.satisfies(vertex, locationExpert)) { // this vertex is a valid destination
+                LinkedList<Location> result = buildResultPath(vertexIndex, parents, graph);
+                // If empty, the path-finding is assumed to have failed (e.g. the source is the destination).
+                return result.isEmpty() ? null : result;
+            }
+
+            // find the next unvisited locations,
+            // sorted by preferring the path not being cornered
+            int nbNeighbours = 0;
+            for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+                final int neighbour = graph.getNeighbour(vertexIndex, direction);
+                if (neighbour == NavGraph.NO_CELL || visited[neighbour])
+                    continue;
+
+                // stable insertion sort on the precomputed one way score, as only 4 neighbours at most
+                final int score = graph.getCorridorScore(neighbour, direction);
+                int position = nbNeighbours++;
+                while (position > 0 && neighbourScores[position - 1] > score) {
+                    neighbours[position] = neighbours[position - 1];
+                    neighbourScores[position] = neighbourScores[position - 1];
+                    position--;
+                }
+                neighbours[position] = neighbour;
+                neighbourScores[position] = score;
+            }
+
+            for (int i = 0; i < nbNeighbours; i++) {
+                int neighbour = neighbours[i];
+                visited[neighbour] = true;
+                if (monsterNearBy(neighbour, danger)) {
+                    // monster there, move!
+                    continue;
+                }
+
+                setParentIfAbsent(parents, neighbour, vertexIndex);
+
+                if (graph.isPortal(neighbour)) {
+                    // If is a portal, register the path from the portal source to the sink.
+                    final int destination = graph.getPortalPartner(neighbour);
+                    setParentIfAbsent(parents, destination, neighbour);
+                    // Then, only enqueue the destination of the portal
+                    neighbour = destination;
+                }
+
+                queue.add(neighbour);
+            }
+        }
+
+        // Path not found
+        return null;
+    }
+
+    /**
+     * Finds the cheapest path to a sink that satisfies the `predicate`,
+     * a step into a dangerous cell costing more than a safe step.
+     * The cells are settled by increasing cost, the cells of the same cost in the order they were reached,
+     * and the neighbours of a cell in the same order as in the breadth-first search.
+     * @param sourceIndex: index of the source cell
+     * @param predicate: the predicate for a location to be considered a destination
+     * @param locationExpert: the information expert for the game level's item locations
+     * @param danger: the danger zones of the monsters, with their cost
+     * @return the cheapest path, null on failure or empty.
+     */
+    private LinkedList<Location> findCheapestPath(int sourceIndex, LocationPredicate predicate,
+                                                  LocationExpert locationExpert, DangerOverlay danger) {
+        final NavGraph graph = locationExpert.getNavGraph();
+        final int cellsCount = graph.getCellsCount();
+        final LocationIndexConverter indexConverter = graph.getIndexConverter();
+
+        final int[] costs = new int[cellsCount];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        final boolean[] settled = new boolean[cellsCount];
+        // parents[i] is the cell from which cell i is reached the cheapest,
+        // portalEntries[i] the portal then stepped on to land on cell i (NO_CELL if none)
+        final int[] parents = new int[cellsCount];
+        Arrays.fill(parents, NO_PARENT);
+        final int[] portalEntries = new int[cellsCount];
+        Arrays.fill(portalEntries, NavGraph.NO_CELL);
+        // the cells queued by cost, in a circle of buckets, as a step costs less than the number of buckets
+        final IntRingBuffer[] buckets = new IntRingBuffer[danger.getMaxStepCost() + 1];
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new IntRingBuffer(NavGraph.NB_DIRECTIONS);
+
+        costs[sourceIndex] = 0;
+        parents[sourceIndex] = ROOT;
+        buckets[0].add(sourceIndex);
+        int queuedCount = 1;
+
+        final int[] neighbours = new int[NavGraph.NB_DIRECTIONS];
+        final int[] neighbourScores = new int[NavGraph.NB_DIRECTIONS];
+
+        for (int cost = 0; queuedCount > 0; cost++) {
+            final IntRingBuffer bucket = buckets[cost % buckets.length];
+            while (!bucket.isEmpty()) {
+                final int vertexIndex = bucket.remove();
+                queuedCount--;
+                if (settled[vertexIndex] || costs[vertexIndex] != cost)
+                    continue; // reached cheaper since queued
+                settled[vertexIndex] = true;
+
+                if (predicate.satisfies(indexConverter.getLocationByIndex(vertexIndex), locationExpert)) {
+                    LinkedList<Location> result = buildCheapestPath(vertexIndex, parents, portalEntries, graph);
+                    return result.isEmpty() ? null : result;
+                }
+
+                // the neighbours, sorted by preferring the path not being cornered (as in the breadth-first search)
+                int nbNeighbours = 0;
+                for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+                    final int neighbour = graph.getNeighbour(vertexIndex, direction);
+                    if (neighbour == NavGraph.NO_CELL || settled[graph.getLanding(vertexIndex, direction)])
+                        continue;
+
+                    final int score = graph.getCorridorScore(neighbour, direction);
+                    int position = nbNeighbours++;
+                    while (position > 0 && neighbourScores[position - 1] > score) {
+                        neighbours[position] = neighbours[position - 1];
+                        neighbourScores[position] = neighbourScores[position - 1];
+                        position--;
+                    }
+                    neighbours[position] = neighbour;
+                    neighbourScores[position] = score;
+                }
+
+                for (int i = 0; i < nbNeighbours; i++) {
+                    final int neighbour = neighbours[i];
+                    // the cost is paid on the cell stepped on, then a portal jumps to its partner
+                    final int landing = graph.isPortal(neighbour) ? graph.getPortalPartner(neighbour) : neighbour;
+                    final int newCost = cost + danger.getStepCost(neighbour);
+                    if (newCost >= costs[landing])
+                        continue;
+                    costs[landing] = newCost;
+                    parents[landing] = vertexIndex;
+                    portalEntries[landing] = landing == neighbour ? NavGraph.NO_CELL : neighbour;
+                    buckets[newCost % buckets.length].add(landing);
+                    queuedCount++;
+                }
+            }
+        }
+
+        // Path not found
+        return null;
+    }
+
+    /**
+     * Builds a result path of the cheapest path search, by following the parents back from the destination.
+     * @param vertexIndex: index of the destination vertex of the path
+     * @param parents: the parent of each reached cell index
+     * @param portalEntries: the portal stepped on to land on each reached cell index (NO_CELL if none)
+     * @param graph: the navigation graph being searched.
+     * @return a LinkedList of locations representing the result path.
+     */
+    static LinkedList<Location> buildCheapestPath(int vertexIndex, int[] parents, int[] portalEntries, NavGraph graph) {
+        final LocationIndexConverter indexConverter = graph.getIndexConverter();
+        LinkedList<Location> result = new LinkedList<>();
+
+        int destination = vertexIndex;
+        while (parents[destination] >= 0) {
+            // the MovingActor jumps to the partner by itself when stepping on a portal,
+            // so the portal is the step, rather than where it lands
+            int step = portalEntries[destination] == NavGraph.NO_CELL ? destination : portalEntries[destination];
+            result.addFirst(indexConverter.getLocationByIndex(step));
+            destination = parents[destination];
+        }
+        return result;
+    }
+
+    /**
+     * Builds a result path by following the parents back from the destination.
+     * @param vertexIndex: index of the destination vertex of the path - should be the foot of the path
+     * @param parents: the parent of each reached cell index
+     * @param graph: the navigation graph being searched.
+     * @return a LinkedList of locations representing the result path.
+     */
+    private LinkedList<Location> buildResultPath(int vertexIndex, int[] parents, NavGraph graph) {
+        final LocationIndexConverter indexConverter = graph.getIndexConverter();
+        LinkedList<Location> result = new LinkedList<>();
+        result.add(indexConverter.getLocationByIndex(vertexIndex));
+
+        int destination = vertexIndex;
+        int source = parents[destination];
+        while (source >= 0) {
+            if (graph.isPortal(source) && graph.isPortal(destination)) {
+                // If the source is a portal, remove its 'internal' path from portal source to sink,
+                // because the MovingActor will automatically jump to the partner location if it steps on a portal.
+                // But still need to add this point for a complete path.
+                result.removeLast();
+            }
+
+            result.add(indexConverter.getLocationByIndex(source));
+            destination = source;
+            source = parents[destination];
+        }
+        Collections.reverse(result); // now the path is from source to destination
+        result.remove(); // the first element is just the actor's current location
+
+        return result;
+    }
+
+    /**
+     * Records the parent of a cell, unless one has been recorded already
+     * (i.e. only the first edge to a cell is kept).
+     * @param parents: the parent of each reached cell index
+     * @param index: index of the cell reached
+     * @param parentIndex: index of the cell from which it is reached
+     */
+    private void setParentIfAbsent(int[] parents, int index, int parentIndex) {
+        if (parents[index] == NO_PARENT)
+            parents[index] = parentIndex;
+    }
+
+    /**
+     * Checks if there are monsters close to the cell (i.e. in their danger zones, which are avoided).
+     * @param cell: index of the cell being checked.
+     * @param danger: the danger zones of the monsters.
+     * @return true if the monsters are nearby, false otherwise.
+     */
+    private boolean monsterNearBy(int cell, DangerOverlay danger) {
+        return danger != null && danger.isAvoided(cell);
+    }
+
+    /**
+     * A FIFO queue of integers, backed by a circular array (grown when full).
+     */
+    private static class IntRingBuffer {
+
+        private int[] elements;
+        private int head = 0;
+        private int size = 0;
+
+        /**
+         * Creates an empty queue.
+         * @param capacity: the number of elements that can be queued at the same time before growing.
+         */
+        public IntRingBuffer(int capacity) {
+            this.elements = new int[Math.max(capacity, 1)];
+        }
+
+        /**
+         * Adds an element to the tail of the queue.
+         * @param element: the element to be added.
+         */
+        public void add(int element) {
+            if (size == elements.length) {
+                // unwrap into a twice larger array
+                int[] grown = new int[2 * elements.length];
+                for (int i = 0; i < size; i++)
+                    grown[i] = elements[(head + i) % elements.length];
+                elements = grown;
+                head = 0;
+            }
+            elements[(head + size) % elements.length] = element;
+            size++;
+        }
+
+        /**
+         * Removes the element at the head of the queue.
+         * @return the removed element.
+         */
+        public int remove() {
+            int element = elements[head];
+            head = (head + 1) % elements.length;
+            size--;
+            return element;
+        }
+
+        /**
+         * Checks if the queue is empty.
+         * @return true if there are no elements queued, false otherwise.
+         */
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -5,13 +5,14 @@ import game.ActorType;
 import game.Items.CellType;
 import game.LocationExpert;
 import game.Workers.LocationIndexConverter;
-import game.Monsters.Monster;
+import game.Workers.DangerOverlay;
 
 import java.util.*;
 import java.util.stream.IntStream;
 
 /**
  * An optimal path finding strategy, using Breadth-First-Search
+ * (unweighted, so all the cells in the danger zones are avoided, even if the danger has a cost).
  */
 
 public class OptimalPathFindingStrategy implements PathFindingStrategy {
@@ -21,7 +22,7 @@ public class OptimalPathFindingStrategy implements PathFindingStrategy {
      */
     @Override
     public LinkedList<Location> findPath(Location source, LocationPredicate predicate,
-                                         LocationExpert locationExpert, ArrayList<Monster> monsters) {
+                                         LocationExpert locationExpert, DangerOverlay danger) {
         LocationIndexConverter indexConverter = new LocationIndexConverter(locationExpert.getHorizontalCellsCount());
 
         final HashMap<CellType, ArrayList<Location>> portalLocations = locationExpert.getPortalLocations();
@@ -58,7 +59,7 @@ public class OptimalPathFindingStrategy implements PathFindingStrategy {
                     markLocationAsVisited(neighbour, visitedSet, indexConverter);
                     // explicitly capture the location to be checked
                     final var capturedNeighbour = neighbour;
-                    if (monsterNearBy(capturedNeighbour, monsters)) {
+                    if (monsterNearBy(capturedNeighbour, danger, indexConverter)) {
                         // monster there, move!
                         continue;
                     }
@@ -135,13 +136,14 @@ public class OptimalPathFindingStrategy implements PathFindingStrategy {
     }
 
     /**
-     * Checks if there are monsters close to the location (i.e. distance < 2).
+     * Checks if there are monsters close to the location (i.e. in their danger zones).
      * @param loc: the location being checked.
-     * @param monsters: an ArrayList of monsters.
+     * @param danger: the danger zones of the monsters.
+     * @param indexConverter: converter to convert the location to an integer index.
      * @return true if the monsters are nearby, false otherwise.
      */
-    private boolean monsterNearBy(Location loc, ArrayList<Monster> monsters) {
-        return monsters != null && monsters.stream().map(Monster::getLocation).anyMatch(i -> i.getDistanceTo(loc) < 2);
+    private boolean monsterNearBy(Location loc, DangerOverlay danger, LocationIndexConverter indexConverter) {
+        return danger != null && danger.isDangerous(indexConverter.getIndexByLocation(loc));
     }
 
     /**
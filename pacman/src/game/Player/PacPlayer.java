@@ -2,7 +2,7 @@ package game.Player;
 
 import ch.aplu.jgamegrid.Location;
 import game.CharacterType;
-import game.Items.Item;
+import game.Items.CellType;
 import game.Items.Pill;
 import game.Level;
 import game.MovingActor;
@@ -30,12 +30,12 @@ public abstract class PacPlayer extends MovingActor {
     }
 
     /**
-     * Called in every simulation iteration.
+     * Called in every simulation cycle the PacActor is due to act.
      */
     @Override
-    public void act() {
+    protected void step() {
         updateSprite();
-        super.act();
+        super.step();
         ((Level) gameGrid).getGameCallback()
                           .pacManLocationChanged(getLocation(), score, nbPills);
     }
@@ -62,26 +62,26 @@ public abstract class PacPlayer extends MovingActor {
      */
     private void eatItem(Location location) {
         Level level = (Level) gameGrid;
-        Item item = level.getSettingManager().getItem(location);
-        if (item == null || !item.isEatable()) // no eatable item here
+        CellType type = level.getSettingManager().getItemTypeAt(location);
+        if (!type.isEatable()) // no eatable item here
             return;
 
         // update pills count and score
-        updateStatus(item);
+        updateStatus(type);
 
-        level.getGameCallback().pacManEatPillsAndItems(location, item.getName());
+        level.getGameCallback().pacManEatPillsAndItems(location, type.toString());
         level.getSettingManager().removeItem(location);
     }
 
     /**
      * Updates the PacActor's internal and displayed status
      * (i.e. number of eaten pills and score) according to the item's effect.
-     * @param item: item that may affect the PacActor's status
+     * @param type: type of the item that may affect the PacActor's status
      */
-    private void updateStatus(Item item) {
-        if (item instanceof Pill pill) {
+    private void updateStatus(CellType type) {
+        if (type == CellType.PILL || type == CellType.GOLD) {
             nbPills++;
-            score += pill.getScoreEffect();
+            score += Pill.scoreEffectOf(type);
         }
 
         String title = "[PacMan in the TorusVerse] Current score: " + score;
@@ -2,9 +2,8 @@ package game.Player;
 
 import ch.aplu.jgamegrid.Location;
 import game.LocationExpert;
-import game.Monsters.Monster;
+import game.Workers.DangerOverlay;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 
 /**
@@ -14,19 +13,19 @@ import java.util.LinkedList;
 public interface PathFindingStrategy {
 
     /**
-     * Finds the optimal path to a sink that satisfies the `predicate` and avoids the monsters.
+     * Finds the optimal path to a sink that satisfies the `predicate` and keeps away from the monsters.
      *
      * @param source The source location.
      * @param predicate The predicate for a location to be considered a destination.
      * @param locationExpert The expert that stores the locations to items on map
-     * @param monsters The monsters on the map. The monsters are avoided when finding the path.
+     * @param danger The danger zones of the monsters on the map, avoided (or weighed) when finding the path.
      *
      * @return The optimal path, null on failure or empty.
      */
     LinkedList<Location> findPath(Location source,
                                   LocationPredicate predicate,
                                   LocationExpert locationExpert,
-                                  ArrayList<Monster> monsters);
+                                  DangerOverlay danger);
 
     /* some default wrapper methods */
 
@@ -0,0 +1,192 @@
+package game.Simulation;
+
+import ch.aplu.jgamegrid.Location;
+import game.CharacterType;
+import game.Level;
+import game.SimulationClock;
+import game.Maps.PacManMap;
+import game.Player.AutoPilot;
+import game.Workers.DangerOverlay;
+import game.Workers.ItemManager;
+import game.Workers.LocationIndexConverter;
+import game.Workers.MapLocations;
+import game.Workers.MonsterOccupancy;
+import game.Workers.SettingManager;
+
+import java.util.*;
+
+/**
+ * A PacMan level simulated without a game grid:
+ * no frame, sprites, log or timer, so it runs as fast as the CPU allows.
+ * The characters follow the same rules as in a Level (see Steerable, MonsterBehaviour and AutoPilot),
+ * and the simulation loop reproduces the game grid's one:
+ * each cycle, the characters due to act do so (the PacMan first), then the level checks for an ending.
+ */
+public class HeadlessLevel {
+
+    private final SettingManager settingManager;
+    private final SimulatedPacPlayer pacPlayer;
+    private final ArrayList<SimulatedMonster> monsters = new ArrayList<>();
+    // the monsters by cell, kept up to date as they move
+    private final MonsterOccupancy monsterOccupancy;
+    // the cells near the monsters, rebuilt once per cycle
+    private final DangerOverlay dangerOverlay;
+    // in the order the game grid makes the actors act
+    private final ArrayList<SimulatedCharacter> actOrder = new ArrayList<>();
+    // the simulation cycles and delayed events of the level, as in a Level
+    private final SimulationClock clock;
+
+    /**
+     * Constructs a headless level using the properties file for isAuto, moves and seed.
+     * @param properties: The property file to configure the level.
+     * @param map: The map for the level.
+     */
+    public HeadlessLevel(Properties properties, PacManMap map) {
+        this.settingManager = new SettingManager(properties, map);
+        this.clock = settingManager.createClock();
+        this.monsterOccupancy = new MonsterOccupancy(map.getHorizontalCellsCount(), map.getVerticalCellsCount());
+        this.dangerOverlay = settingManager.createDangerOverlay();
+        this.pacPlayer = setUpCharacters();
+        updateDangerOverlay();
+    }
+
+    /**
+     * Sets up the characters (pacActor and monsters), as Level.setUpActors() does.
+     * @return the PacMan.
+     */
+    private SimulatedPacPlayer setUpCharacters() {
+        int seed = settingManager.getSeed();
+        ItemManager itemManager = settingManager.getItemManager();
+        Location pacActorLocation = null;
+
+        // the game grid makes the actors act by class, the class added last first,
+        // and the actors of a class in the reverse order they were added
+        LinkedHashMap<CharacterType, ArrayList<SimulatedMonster>> monstersByType = new LinkedHashMap<>();
+        MapLocations locations = settingManager.getLocations();
+        LocationIndexConverter indexConverter = new LocationIndexConverter(settingManager.getMap().getHorizontalCellsCount());
+        for (int i = 0; i < locations.getCharacterCount(); i++) {
+            Location location = indexConverter.getLocationByIndex(locations.getCharacterCell(i));
+            CharacterType type = locations.getCharacterType(i);
+            if (type.equals(CharacterType.PACMAN)) {
+                pacActorLocation = location;
+            } else if (type.equals(CharacterType.M_TROLL) || type.equals(CharacterType.M_TX5)) {
+                SimulatedMonster monster =
+                        new SimulatedMonster(itemManager, seed, location, type, Level.SLOW_DOWN_FACTOR, clock.getScheduler());
+                monsters.add(monster);
+                monsterOccupancy.add(location);
+                monstersByType.computeIfAbsent(type, k -> new ArrayList<>()).add(monster);
+            }
+        }
+        if (pacActorLocation == null)
+            throw new IllegalArgumentException("No PacMan start on the map");
+
+        AutoPilot autoPilot = settingManager.getPlayerMode() ? new AutoPilot(settingManager.getPlayerMoves()) : null;
+        SimulatedPacPlayer player =
+                new SimulatedPacPlayer(itemManager, seed, pacActorLocation, autoPilot, Level.SLOW_DOWN_FACTOR);
+
+        // the pacActor is added last so that it would act first
+        actOrder.add(player);
+        ArrayList<ArrayList<SimulatedMonster>> types = new ArrayList<>(monstersByType.values());
+        Collections.reverse(types);
+        for (ArrayList<SimulatedMonster> monstersOfType : types) {
+            for (int i = monstersOfType.size() - 1; i >= 0; i--)
+                actOrder.add(monstersOfType.get(i));
+        }
+        return player;
+    }
+
+    /**
+     * Runs the level until it ends, or until the maximum number of cycles.
+     * @param maxCycles: the maximum number of simulation cycles to run
+     * @return the result of the simulation.
+     */
+    public SimulationResult run(int maxCycles) {
+        final long startTime = System.nanoTime();
+        SimulationResult.Outcome outcome = SimulationResult.Outcome.TIMEOUT;
+        int cycles = maxCycles;
+        while (clock.getCycle() <= maxCycles) {
+            for (SimulatedCharacter character : actOrder)
+                character.tick(this);
+
+            // as in Level.act(), after all the characters
+            if (pacActorCollidedWithMonster()) {
+                outcome = SimulationResult.Outcome.LOSE;
+                cycles = clock.getCycle();
+                break;
+            } else if (settingManager.countPills() == 0) { // all pills eaten
+                outcome = SimulationResult.Outcome.WIN;
+                cycles = clock.getCycle();
+                break;
+            }
+            updateDangerOverlay(); // the monsters have moved
+            clock.endCycle();
+        }
+        return new SimulationResult(outcome, cycles, pacPlayer.getScore(), pacPlayer.getNbPills(),
+                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Rebuilds the danger overlay for the current locations of the monsters.
+     */
+    private void updateDangerOverlay() {
+        dangerOverlay.clear();
+        for (SimulatedMonster monster : monsters)
+            dangerOverlay.addMonster(monster.getLocation(), monster.getType());
+    }
+
+    /**
+     * Checks whether the pacActor has collided with a monster.
+     * @return true if the collision happened, false otherwise.
+     */
+    private boolean pacActorCollidedWithMonster() {
+        return monsterOccupancy.isMonsterAt(pacPlayer.getLocation());
+    }
+
+    /**
+     * Gets the simulation clock of the level.
+     * @return the clock the characters read the cycles from.
+     */
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the setting manager of the level.
+     * @return the setting manager.
+     */
+    public SettingManager getSettingManager() {
+        return settingManager;
+    }
+
+    /**
+     * Gets the PacMan of the level.
+     * @return the PacMan.
+     */
+    public SimulatedPacPlayer getPlayer() {
+        return pacPlayer;
+    }
+
+    /**
+     * Gets the monsters on this level.
+     * @return The list of monsters on the level.
+     */
+    public List<SimulatedMonster> getMonsters() {
+        return monsters;
+    }
+
+    /**
+     * Gets the occupancy index of the monsters on this level.
+     * @return the monsters by cell.
+     */
+    public MonsterOccupancy getMonsterOccupancy() {
+        return monsterOccupancy;
+    }
+
+    /**
+     * Gets the danger zones of the monsters on this level.
+     * @return the overlay of the cells near the monsters, as of the end of the last cycle.
+     */
+    public DangerOverlay getDangerOverlay() {
+        return dangerOverlay;
+    }
+}
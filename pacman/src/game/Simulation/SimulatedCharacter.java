@@ -0,0 +1,118 @@
+package game.Simulation;
+
+import ch.aplu.jgamegrid.Location;
+import game.Steerable;
+import game.Workers.ItemManager;
+import game.utility.RecentlyVisitedList;
+
+import java.util.Random;
+
+/**
+ * A moving character of a headless level, steered by the same rules as the actors
+ * (see Steerable) but with no sprite or game grid behind it.
+ */
+public abstract class SimulatedCharacter implements Steerable {
+
+    private final ItemManager itemManager;
+    private final Random randomiser;
+    private final RecentlyVisitedList recentlyVisitedList = new RecentlyVisitedList();
+    private Location location;
+    private double direction;
+
+    /* acts once every `slowDown` cycles of the level's clock, as the actors do */
+    private final int slowDown;
+
+    /**
+     * Creates a character.
+     * @param itemManager: the item manager of the level
+     * @param seed: the seed for random behaviors of the character
+     * @param location: the starting location
+     * @param direction: the starting direction in degrees
+     * @param slowDown: the number of simulation cycles per act.
+     */
+    public SimulatedCharacter(ItemManager itemManager, int seed, Location location, double direction, int slowDown) {
+        this.itemManager = itemManager;
+        this.randomiser = new Random(seed);
+        this.location = location;
+        setDirection(direction);
+        this.slowDown = slowDown;
+    }
+
+    /**
+     * Called in every simulation cycle.
+     * @param level: the level the character is in.
+     */
+    public void tick(HeadlessLevel level) {
+        if (level.getClock().isDue(slowDown))
+            act(level);
+    }
+
+    /**
+     * Called in every simulation cycle the character is due to act.
+     * @param level: the level the character is in.
+     */
+    protected abstract void act(HeadlessLevel level);
+
+    /**
+     * Moves to the next move location.
+     */
+    protected void move() {
+        setLocation(getNextMoveLocation());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Location getLocation() {
+        return location;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setLocation(Location location) {
+        this.location = location;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getDirection() {
+        return direction;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setDirection(double direction) {
+        // normalized to [0, 360), as for the actors
+        direction %= 360;
+        this.direction = direction < 0 ? direction + 360 : direction;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void turn(double angle) {
+        setDirection(direction + angle);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ItemManager getItemManager() {
+        return itemManager;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Random getRandomiser() {
+        return randomiser;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addVisitedList(Location location) {
+        recentlyVisitedList.add(location);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isVisited(Location location) {
+        return recentlyVisitedList.contains(location);
+    }
+}
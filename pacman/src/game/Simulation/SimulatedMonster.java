@@ -0,0 +1,62 @@
+package game.Simulation;
+
+import ch.aplu.jgamegrid.Location;
+import game.CharacterType;
+import game.Monsters.MonsterBehaviour;
+import game.Workers.ItemManager;
+import game.utility.TickScheduler;
+
+/**
+ * A monster of a headless level, walking with the behaviour of its type.
+ */
+public class SimulatedMonster extends SimulatedCharacter {
+
+    private final CharacterType type;
+    private final MonsterBehaviour behaviour;
+    // whether the monster still waits before moving, when the game starts
+    private boolean waiting;
+
+    /**
+     * Creates a monster.
+     * @param itemManager: the item manager of the level
+     * @param seed: the seed for random behaviors of the monster
+     * @param location: the starting location
+     * @param type: the character type of the monster
+     * @param slowDown: the number of simulation cycles per act.
+     * @param scheduler: the scheduler of the level, to stop waiting after a while when the game starts
+     */
+    public SimulatedMonster(ItemManager itemManager, int seed, Location location, CharacterType type, int slowDown,
+                            TickScheduler scheduler) {
+        super(itemManager, seed, location, Location.NORTH.getDirection(), slowDown);
+        this.type = type;
+        this.behaviour = MonsterBehaviour.forType(type);
+        int waitingCycles = behaviour.getWaitingCycles();
+        this.waiting = waitingCycles > 0;
+        if (waiting)
+            scheduler.schedule(waitingCycles, () -> waiting = false);
+    }
+
+    /**
+     * Sets the next direction, then moves (as the Monster does).
+     * @param level: the level the monster is in.
+     */
+    @Override
+    protected void act(HeadlessLevel level) {
+        if (waiting) // do nothing
+            return;
+
+        behaviour.setNextDirection(this, level.getPlayer().getLocation());
+        Location from = getLocation();
+        addVisitedList(getNextMoveLocation());
+        move();
+        level.getMonsterOccupancy().move(from, getLocation());
+    }
+
+    /**
+     * Gets the character type of the monster.
+     * @return the monster type.
+     */
+    public CharacterType getType() {
+        return type;
+    }
+}
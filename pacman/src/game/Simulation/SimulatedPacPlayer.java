@@ -0,0 +1,79 @@
+package game.Simulation;
+
+import ch.aplu.jgamegrid.Location;
+import game.Items.CellType;
+import game.Items.Pill;
+import game.Player.AutoPilot;
+import game.Workers.ItemManager;
+
+/**
+ * The PacMan of a headless level.
+ * Steered by an AutoPilot in auto mode; with no keyboard, it stays still otherwise.
+ */
+public class SimulatedPacPlayer extends SimulatedCharacter {
+
+    // null if not in auto mode
+    private final AutoPilot autoPilot;
+    private int nbPills = 0;
+    private int score = 0;
+
+    /**
+     * Creates a PacMan.
+     * @param itemManager: the item manager of the level
+     * @param seed: the seed for random behaviors of the PacMan
+     * @param location: the starting location
+     * @param autoPilot: the auto pilot steering the PacMan, null if not in auto mode
+     * @param slowDown: the number of simulation cycles per act.
+     */
+    public SimulatedPacPlayer(ItemManager itemManager, int seed, Location location, AutoPilot autoPilot, int slowDown) {
+        super(itemManager, seed, location, Location.EAST.getDirection(), slowDown);
+        this.autoPilot = autoPilot;
+    }
+
+    /**
+     * Sets the next direction, then moves and eats (as the PacPlayer does).
+     * @param level: the level the PacMan is in.
+     */
+    @Override
+    protected void act(HeadlessLevel level) {
+        if (autoPilot == null || !autoPilot.setNextDirection(this, getItemManager(), level.getDangerOverlay()))
+            return;
+
+        // move and eat
+        addVisitedList(getNextMoveLocation());
+        move();
+        eatItem(getLocation());
+    }
+
+    /**
+     * Tries to eat an item at the given location, updating the pills count and score.
+     * @param location: location to be checked
+     */
+    private void eatItem(Location location) {
+        CellType type = getItemManager().getTypeAt(location);
+        if (!type.isEatable()) // no eatable item here
+            return;
+
+        if (type == CellType.PILL || type == CellType.GOLD) {
+            nbPills++;
+            score += Pill.scoreEffectOf(type);
+        }
+        getItemManager().removeItem(location);
+    }
+
+    /**
+     * Gets the number of pills the PacMan has eaten.
+     * @return the number of pills eaten.
+     */
+    public int getNbPills() {
+        return nbPills;
+    }
+
+    /**
+     * Gets the current score of the PacMan.
+     * @return the score.
+     */
+    public int getScore() {
+        return score;
+    }
+}
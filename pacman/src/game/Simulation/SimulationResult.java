@@ -0,0 +1,94 @@
+package game.Simulation;
+
+/**
+ * The result of running a headless level.
+ */
+public class SimulationResult {
+
+    /**
+     * How a simulation ended.
+     */
+    public enum Outcome {
+        WIN("YOU WIN"),
+        LOSE("GAME OVER"),
+        TIMEOUT("TIMEOUT");
+
+        private final String title;
+
+        Outcome(String title) {
+            this.title = title;
+        }
+
+        /**
+         * Gets the ending title, as shown by the game.
+         * @return the title of the outcome.
+         */
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    private final Outcome outcome;
+    private final int cycles;
+    private final int score;
+    private final int nbPills;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a simulation result.
+     * @param outcome: how the simulation ended
+     * @param cycles: the number of simulation cycles run
+     * @param score: the final score of the PacMan
+     * @param nbPills: the number of pills eaten by the PacMan
+     * @param elapsedNanos: the wall-clock time taken, in nanoseconds.
+     */
+    public SimulationResult(Outcome outcome, int cycles, int score, int nbPills, long elapsedNanos) {
+        this.outcome = outcome;
+        this.cycles = cycles;
+        this.score = score;
+        this.nbPills = nbPills;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return how the simulation ended.
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return the number of simulation cycles run.
+     */
+    public int getCycles() {
+        return cycles;
+    }
+
+    /**
+     * @return the final score of the PacMan.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of pills eaten by the PacMan.
+     */
+    public int getNbPills() {
+        return nbPills;
+    }
+
+    /**
+     * @return the wall-clock time taken, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("%s after %d cycles (score %d, %d pills, %.3f ms)",
+                outcome.getTitle(), cycles, score, nbPills, elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,135 @@
+package game;
+
+import game.utility.TickScheduler;
+
+/**
+ * The simulation clock of a level: the game logic reads the simulation cycles (ticks) from it,
+ * never the wall clock, so a level with the same seed plays out the same whatever the speed it runs at.
+ * The clock also holds the level's scheduler of delayed events, which run when a cycle ends.
+ *
+ * The mode only decides how the cycles are paced against the wall clock on a game grid
+ * (a headless level runs the cycles back to back anyway):
+ * - FIXED_STEP: one cycle every simulation period, as the game grid does by default;
+ * - FAST: `speedUp` cycles every simulation period (e.g. for regression runs);
+ * - FRAME_SKIP: one cycle every simulation period, but when the cycles fall behind the wall clock
+ *               (e.g. under CPU load), the late cycles are run at once to catch up,
+ *               instead of slowing the game down.
+ */
+public class SimulationClock {
+    public enum Mode { FIXED_STEP, FAST, FRAME_SKIP }
+
+    // at most this many cycles are run at once to catch up, so that a long stall does not freeze the display
+    private static final int MAX_CYCLES_PER_FRAME = 5;
+    private static final long NOT_STARTED = -1;
+    private static final long MILLISECOND_TO_NANOSECONDS = 1_000_000;
+
+    private final Mode mode;
+    private final int speedUp;
+    private final TickScheduler scheduler = new TickScheduler();
+    // wall time of the first cycle, for FRAME_SKIP
+    private long startNanos = NOT_STARTED;
+
+    /**
+     * Creates a fixed-step clock.
+     */
+    public SimulationClock() {
+        this(Mode.FIXED_STEP, 1);
+    }
+
+    /**
+     * Creates a clock, at the first cycle.
+     * @param mode: the way the cycles are paced against the wall clock
+     * @param speedUp: the number of cycles per simulation period in FAST mode (at least 1)
+     */
+    public SimulationClock(Mode mode, int speedUp) {
+        if (speedUp < 1)
+            throw new IllegalArgumentException("Invalid speed up " + speedUp + ", must be at least 1");
+        this.mode = mode;
+        this.speedUp = speedUp;
+    }
+
+    /**
+     * Gets the current simulation cycle (the one running, or the next one to run between two cycles).
+     * @return the current cycle, counted from 1.
+     */
+    public int getCycle() {
+        return scheduler.getTick() + 1;
+    }
+
+    /**
+     * Checks whether a character acting once every few cycles is due to act in the current cycle
+     * (i.e. the same as the game grid's slow down, for characters set up before the first cycle).
+     * @param cyclesPerAct: the number of cycles per act of the character
+     * @return true if it acts in this cycle, false otherwise.
+     */
+    public boolean isDue(int cyclesPerAct) {
+        return getCycle() % cyclesPerAct == 0;
+    }
+
+    /**
+     * Ends the current cycle: runs the delayed events due, then moves on to the next cycle.
+     */
+    public void endCycle() {
+        scheduler.advance();
+    }
+
+    /**
+     * Stops the clock, cancelling the delayed events not run yet (e.g. when the level ends).
+     */
+    public void stop() {
+        scheduler.clear();
+    }
+
+    /**
+     * Gets the scheduler of the delayed events, in cycles.
+     * @return the level's scheduler.
+     */
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the mode of the clock.
+     * @return the way the cycles are paced.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the wall time between two cycles on a game grid.
+     * @param simulationPeriod: the simulation period of a cycle at normal speed, in milliseconds
+     * @return the wall time between two cycles, in milliseconds.
+     */
+    public int getWallPeriod(int simulationPeriod) {
+        return mode == Mode.FAST ? Math.max(1, simulationPeriod / speedUp) : simulationPeriod;
+    }
+
+    /**
+     * Gets the number of cycles to run at once on a game grid, for its next frame.
+     * Only more than one in FRAME_SKIP mode, if the cycles are behind the wall clock.
+     * @param simulationPeriod: the simulation period of a cycle at normal speed, in milliseconds
+     * @param nowNanos: the current wall time (see System.nanoTime())
+     * @return the number of cycles to run before the next frame.
+     */
+    public int getCyclesPerFrame(int simulationPeriod, long nowNanos) {
+        if (mode != Mode.FRAME_SKIP)
+            return 1;
+        if (startNanos == NOT_STARTED)
+            startNanos = nowNanos - (getCycle() - 1) * simulationPeriod * MILLISECOND_TO_NANOSECONDS;
+        long dueCycle = (nowNanos - startNanos) / (simulationPeriod * MILLISECOND_TO_NANOSECONDS) + 1;
+        return (int) Math.max(1, Math.min(MAX_CYCLES_PER_FRAME, dueCycle - getCycle() + 1));
+    }
+
+    /**
+     * Parses the name of a mode.
+     * @param name: the name of the mode (case insensitive), or null for the default one
+     * @return the mode, FIXED_STEP by default.
+     * @throws IllegalArgumentException if there is no such mode.
+     */
+    public static Mode parseMode(String name) {
+        if (name == null || name.isBlank())
+            return Mode.FIXED_STEP;
+        return Mode.valueOf(name.trim().toUpperCase());
+    }
+}
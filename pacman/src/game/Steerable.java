@@ -0,0 +1,169 @@
+package game;
+
+import ch.aplu.jgamegrid.Location;
+import game.Workers.ItemManager;
+import game.Workers.NavGraph;
+
+import java.util.Random;
+
+/**
+ * A character that can be steered around the cells of a level.
+ * Holds the common movement rules of all moving characters,
+ * so that they are shared by the actors on the game grid (see MovingActor)
+ * and by the characters of a headless simulation.
+ */
+public interface Steerable {
+
+    /**
+     * Gets the current location.
+     * @return the location of the character.
+     */
+    Location getLocation();
+
+    /**
+     * Moves the character to the given location.
+     * @param location: the new location.
+     */
+    void setLocation(Location location);
+
+    /**
+     * Gets the current direction.
+     * @return the direction in degrees, clockwise from east.
+     */
+    double getDirection();
+
+    /**
+     * Sets the current direction.
+     * @param direction: the direction in degrees, clockwise from east.
+     */
+    void setDirection(double direction);
+
+    /**
+     * Turns the current direction by the given angle.
+     * @param angle: the angle in degrees, clockwise.
+     */
+    void turn(double angle);
+
+    /**
+     * Gets the item manager of the level the character is in.
+     * @return the item manager (i.e. the expert of walls, items and portals).
+     */
+    ItemManager getItemManager();
+
+    /**
+     * Gets the randomiser for the random behaviors of the character.
+     * @return the seeded randomiser.
+     */
+    Random getRandomiser();
+
+    /**
+     * Adds the given location to the recently visited list.
+     * @param location: location to be added
+     */
+    void addVisitedList(Location location);
+
+    /**
+     * Checks whether the given location is (recently) visited.
+     * @param location: the location to be checked
+     * @return true if it's (recently) visited, false otherwise.
+     */
+    boolean isVisited(Location location);
+
+    /* Some common movement logics in all moving characters */
+
+    /**
+     * Checks if the move is valid.
+     * @return true if the move is valid, false otherwise.
+     */
+    default boolean isMoveValid() {
+        return isValidLocation(getFirstCell());
+    }
+
+    /**
+     * Gets the first cell in the set direction.
+     * @return the first cell in that direction.
+     */
+    default Location getFirstCell() {
+        return getLocation().getNeighbourLocation(getDirection());
+    }
+
+    /**
+     * Checks if the location is valid (i.e. in grid and not a wall).
+     * @param loc: location to be checked
+     * @return true if it's valid, false otherwise.
+     */
+    default boolean isValidLocation(Location loc) {
+        return isInBound(loc) && !isWallAt(loc);
+    }
+
+    /**
+     * Checks whether the given location is a wall.
+     * @param loc: location to be checked
+     * @return true if it's a wall, false otherwise.
+     */
+    default boolean isWallAt(Location loc) {
+        return getItemManager().isWallAt(loc);
+    }
+
+    /**
+     * Checks if the location is in bound of the grid.
+     * @param loc: location to be checked
+     * @return true if it's in bound, false otherwise.
+     */
+    default boolean isInBound(Location loc) {
+        return getItemManager().isInBound(loc);
+    }
+
+    /**
+     * Sets the direction (compass direction restricted to 4 sectors)
+     * to the target location.
+     * @param target: the target location
+     */
+    default void setDirectionToTarget(Location target) {
+        setDirection(getLocation().get4CompassDirectionTo(target).getDirection());
+    }
+
+    /**
+     * Gets the target location of the next move.
+     * If the next move is the portal, the returned value will be the partner of the portal.
+     * If the move is valid, the location is determined by the set direction.
+     * If not, the location is the current location (i.e. the character does not move).
+     * @return the target location.
+     */
+    default Location getNextMoveLocation() {
+        NavGraph graph = getItemManager().getNavGraph();
+        int cell = graph.getIndex(getFirstCell());
+        if (cell != NavGraph.NO_CELL && graph.isPortal(cell)) {
+            return graph.getIndexConverter().getLocationByIndex(graph.getPortalPartner(cell));
+        }
+
+        if (isMoveValid()) // in case no directions are valid
+            return getFirstCell();
+        return getLocation();
+    }
+
+    /**
+     * Sets the direction according to a random walk approach
+     * @param oldDirection: original direction
+     */
+    default void setRandomMoveDirection(double oldDirection) {
+        final int sign = getRandomiser().nextDouble() < 0.5 ? 1 : -1;
+
+        setDirection(oldDirection);
+        // randomly turn left or right
+        turn(sign * 90);
+        if (isMoveValid())  return;
+
+        // turn back to original direction
+        setDirection(oldDirection);
+        if (isMoveValid())  return;
+
+        // turn the other side
+        turn(-sign * 90);
+        if (isMoveValid())  return;
+
+        // go backward
+        setDirection(oldDirection);
+        turn(180); // turn again to backward.
+    }
+}
@@ -0,0 +1,154 @@
+package game.Workers;
+
+import ch.aplu.jgamegrid.Location;
+import game.CharacterType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+
+/**
+ * The danger zones of a level's monsters: a bitmap over the cell indices marking the cells near a monster
+ * (i.e. at a distance under the monster type's radius, as measured by Location.getDistanceTo()),
+ * rebuilt once per simulation cycle after the monsters have moved, then shared by all the path searches.
+ *
+ * Entering a dangerous cell either is forbidden (AVOID, the default: the cell is treated as a wall),
+ * or costs `dangerCost` extra steps, so that a path only goes through danger when going around it is longer.
+ */
+public class DangerOverlay {
+    public static final int DEFAULT_RADIUS = 2;
+    public static final int AVOID = -1;
+
+    private final int horizontalCellsCount;
+    private final int verticalCellsCount;
+    private final BitSet dangerousCells = new BitSet();
+    private final int dangerCost;
+    // the largest radius of the danger zones
+    private final int maxRadius;
+    // the offsets (x, y pairs) of the cells in the danger zone of each monster type
+    private final EnumMap<CharacterType, int[]> zoneOffsets = new EnumMap<>(CharacterType.class);
+
+    /**
+     * Creates an overlay with no danger yet, where the monsters are avoided within the default radius.
+     * @param horizontalCellsCount: the number of horizontal cells
+     * @param verticalCellsCount: the number of vertical cells.
+     */
+    public DangerOverlay(int horizontalCellsCount, int verticalCellsCount) {
+        this(horizontalCellsCount, verticalCellsCount, new EnumMap<>(CharacterType.class), AVOID);
+    }
+
+    /**
+     * Creates an overlay with no danger yet.
+     * @param horizontalCellsCount: the number of horizontal cells
+     * @param verticalCellsCount: the number of vertical cells
+     * @param radii: the radius of the danger zone of each monster type (DEFAULT_RADIUS for the types not given)
+     * @param dangerCost: the extra cost of entering a dangerous cell, AVOID to never enter one.
+     */
+    public DangerOverlay(int horizontalCellsCount, int verticalCellsCount,
+                         EnumMap<CharacterType, Integer> radii, int dangerCost) {
+        if (dangerCost < 0 && dangerCost != AVOID)
+            throw new IllegalArgumentException("Invalid danger cost " + dangerCost);
+        this.horizontalCellsCount = horizontalCellsCount;
+        this.verticalCellsCount = verticalCellsCount;
+        this.dangerCost = dangerCost;
+        int largestRadius = 0;
+        for (CharacterType type : CharacterType.CHARACTER_TYPES) {
+            int radius = radii.getOrDefault(type, DEFAULT_RADIUS);
+            zoneOffsets.put(type, computeZoneOffsets(radius));
+            largestRadius = Math.max(largestRadius, radius);
+        }
+        this.maxRadius = largestRadius;
+    }
+
+    /**
+     * Computes the offsets of the cells in a danger zone.
+     * @param radius: the radius of the zone
+     * @return the (x, y) offsets of the cells at a distance under the radius.
+     */
+    private static int[] computeZoneOffsets(int radius) {
+        Location origin = new Location(0, 0);
+        ArrayList<Integer> offsets = new ArrayList<>();
+        for (int dy = -radius; dy <= radius; dy++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                if (origin.getDistanceTo(new Location(dx, dy)) < radius) {
+                    offsets.add(dx);
+                    offsets.add(dy);
+                }
+            }
+        }
+        return offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Clears the danger zones, before they are rebuilt for the new locations of the monsters.
+     */
+    public void clear() {
+        dangerousCells.clear();
+    }
+
+    /**
+     * Marks the danger zone of a monster.
+     * @param location: the location of the monster
+     * @param type: the type of the monster.
+     */
+    public void addMonster(Location location, CharacterType type) {
+        int[] offsets = zoneOffsets.get(type);
+        for (int i = 0; i < offsets.length; i += 2) {
+            int x = location.x + offsets[i];
+            int y = location.y + offsets[i + 1];
+            if (x >= 0 && x < horizontalCellsCount && y >= 0 && y < verticalCellsCount)
+                dangerousCells.set(y * horizontalCellsCount + x);
+        }
+    }
+
+    /**
+     * Checks if a cell is in the danger zone of a monster.
+     * @param cell: index of the cell being checked.
+     * @return true if a monster is nearby, false otherwise.
+     */
+    public boolean isDangerous(int cell) {
+        return dangerousCells.get(cell);
+    }
+
+    /**
+     * Checks if a cell must not be entered, i.e. it is dangerous and the danger is avoided.
+     * @param cell: index of the cell being checked.
+     * @return true if the cell is to be treated as a wall, false otherwise.
+     */
+    public boolean isAvoided(int cell) {
+        return dangerCost == AVOID && dangerousCells.get(cell);
+    }
+
+    /**
+     * Checks if the dangerous cells can be entered at a cost, rather than avoided.
+     * @return true if the danger has a cost, false if it is avoided.
+     */
+    public boolean isWeighted() {
+        return dangerCost != AVOID;
+    }
+
+    /**
+     * Gets the cost of a step into a cell, if it can be entered.
+     * @param cell: index of the cell entered
+     * @return 1, plus the danger cost if the cell is dangerous.
+     */
+    public int getStepCost(int cell) {
+        return isWeighted() && dangerousCells.get(cell) ? 1 + dangerCost : 1;
+    }
+
+    /**
+     * Gets the largest radius of the danger zones, i.e. how far a monster's danger reaches.
+     * @return the largest radius over the monster types.
+     */
+    public int getMaxRadius() {
+        return maxRadius;
+    }
+
+    /**
+     * Gets the largest cost of a step into a cell that can be entered.
+     * @return 1 plus the danger cost, 1 if the danger is avoided.
+     */
+    public int getMaxStepCost() {
+        return isWeighted() ? 1 + dangerCost : 1;
+    }
+}
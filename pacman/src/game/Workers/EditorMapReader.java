@@ -2,6 +2,7 @@ package game.Workers;
 
 import ch.aplu.jgamegrid.Location;
 import game.ActorType;
+import game.CharacterType;
 import game.Items.CellType;
 import game.Maps.PacManMap;
 
@@ -11,44 +12,43 @@ import java.util.HashMap;
  * Reader for a map used for the editor (new functionality as per the spec).
  */
 public class EditorMapReader implements MapReader {
-    private HashMap<Integer, ActorType> itemLocations = new HashMap<>();
-    private HashMap<Integer, ActorType> characterLocations = new HashMap<>();
+    // the map read last, and its locations
+    private PacManMap readMap;
+    private MapLocations locations;
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public HashMap<Integer, ActorType> getItemLocations(PacManMap map) {
-        readMap(map);
-        return itemLocations;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public HashMap<Integer, ActorType> getCharacterLocations(PacManMap map) {
-        readMap(map);
-        return characterLocations;
+    public MapLocations getLocations(PacManMap map) {
+        if (map != readMap) {
+            locations = readMap(map);
+            readMap = map;
+        }
+        return locations;
     }
 
     /**
-     * Reads the map and stores the item and character locations.
+     * Reads the map, in a single scan.
      * @param map: the map to be read.
+     * @return the item and character locations.
      */
-    private void readMap(PacManMap map) {
-        LocationIndexConverter indexConverter = new LocationIndexConverter(map.getHorizontalCellsCount());
+    private MapLocations readMap(PacManMap map) {
+        int width = map.getHorizontalCellsCount();
+        CellType[] itemTypes = new CellType[width * map.getVerticalCellsCount()];
+        HashMap<Integer, CharacterType> characterLocations = new HashMap<>();
         for (int i = 0; i < map.getVerticalCellsCount(); i++) {
-            for (int j = 0; j < map.getHorizontalCellsCount(); j++) {
-                ActorType type = map.getTypeAt(new Location(j,i));
+            for (int j = 0; j < width; j++) {
+                ActorType type = map.getTypeAt(new Location(j, i));
                 if (type instanceof CellType) {
-                    itemLocations.put(indexConverter.getIndexByLocation(new Location(j, i)), type);
+                    itemTypes[i * width + j] = (CellType) type;
                 } else {
-                    characterLocations.put(indexConverter.getIndexByLocation(new Location(j, i)), type);
+                    characterLocations.put(i * width + j, (CharacterType) type);
                     // A character tile -> fill it with space
-                    itemLocations.put(indexConverter.getIndexByLocation(new Location(j, i)), CellType.SPACE);
+                    itemTypes[i * width + j] = CellType.SPACE;
                 }
             }
         }
+        return new MapLocations(itemTypes, characterLocations);
     }
 }
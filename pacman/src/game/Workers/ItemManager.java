@@ -7,6 +7,7 @@ import game.Items.*;
 import game.Level;
 import game.LocationExpert;
 import game.Maps.PacManMap;
+import game.utility.HeapBudget;
 
 import java.util.*;
 
@@ -15,51 +16,105 @@ import java.util.*;
  * An expert for the dynamic information of item locations in that level.
  */
 public class ItemManager implements LocationExpert {
-    private final HashMap<Integer, Item> items = new HashMap<>();
-    private final HashSet<Integer> wallLocations = new HashSet<>();
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final List<CellType> ALL_CELL_TYPES = List.of(CELL_TYPES);
+    /* the heap taken per cell by a level, with compressed references: the map reader's cell types (4 bytes),
+       the cell types and items here (5), the NavGraph (53), the PillDistanceField (37),
+       the MonsterOccupancy (4) and the arrays of a path search (13) */
+    public static final int LEVEL_BYTES_PER_CELL = 116;
+    /* the current cell type (by ordinal) and item of each cell, by cell index */
+    private final byte[] cellTypes;
+    private final Item[] items;
+    /* live (i.e. not removed) items per cell type, kept up to date for constant time counts */
+    private final EnumMap<CellType, BitSet> liveItemCells = new EnumMap<>(CellType.class);
+    private final int[] liveItemCounts = new int[CellType.values().length];
+    // every gold placed, including the eaten ones
+    private final ArrayList<Location> goldLocations = new ArrayList<>();
 
     private final int horizontalCellsCount;
     private final int verticalCellsCount;
     // store the index converter for simplicity of reference
     private final LocationIndexConverter indexConverter;
+    // the live (i.e. not removed) items, for nearest item lookups:
+    // built lazily on the first lookup, then kept up to date as the items are removed
+    private ItemSpatialIndex itemIndex;
+    // compiled once the walls and portals are placed; items being eaten do not affect it
+    private final NavGraph navGraph;
+    // computed lazily, then kept up to date as the pills and golds are eaten
+    private PillDistanceField pillDistanceField;
+    // null if headless
+    private final GGBackground bg;
 
     /**
      * Creates an ItemManager to keep track of the Items.
      * @param map: The map containing the initial actors' location information.
-     * @param level: The level on which the items are kept.
+     * @param level: The level on which the items are kept,
+     *               null for a headless level (i.e. only the cells are kept, with no actors nor painting).
      */
     public ItemManager(PacManMap map, Level level) {
-        HashMap<Integer, ActorType> itemLocations = map.readMyItemLocations(new EditorMapReader());
+        this(map, new EditorMapReader(), level);
+    }
+
+    /**
+     * Creates an ItemManager to keep track of the Items.
+     * @param map: The map containing the initial actors' location information.
+     * @param reader: The reader of the map (an EditorMapReader), shared so that the map is read once.
+     * @param level: The level on which the items are kept,
+     *               null for a headless level (i.e. only the cells are kept, with no actors nor painting).
+     * @throws IllegalArgumentException if the level of such a map does not fit in the heap.
+     */
+    public ItemManager(PacManMap map, EditorMapReader reader, Level level) {
         this.horizontalCellsCount = map.getHorizontalCellsCount();
         this.verticalCellsCount = map.getVerticalCellsCount();
+        final int cellsCount = NavGraph.countCells(horizontalCellsCount, verticalCellsCount);
+        if (!HeapBudget.fits(cellsCount, LEVEL_BYTES_PER_CELL))
+            throw new IllegalArgumentException("Map too large for a level: "
+                    + HeapBudget.describe(cellsCount, LEVEL_BYTES_PER_CELL));
+
+        MapLocations locations = map.readMyLocations(reader);
         this.indexConverter = new LocationIndexConverter(horizontalCellsCount);
+        this.cellTypes = new byte[cellsCount];
+        this.items = new Item[cellsCount];
+        Arrays.fill(cellTypes, (byte) CellType.SPACE.ordinal());
 
-        GGBackground bg = level.getBg();
+        this.bg = level == null ? null : level.getBg();
 
         HashMap<CellType, ArrayList<Location>> portalLocations = new HashMap<>();
 
-        for (Map.Entry<Integer, ActorType> entry : itemLocations.entrySet()) {
-            Location location = indexConverter.getLocationByIndex(entry.getKey());
-            ActorType cellType = entry.getValue();
-
-            if (cellType instanceof CellType && CellType.PORTALS.contains((CellType) cellType)) {
-                portalLocations.computeIfAbsent((CellType) cellType, k -> new ArrayList<>());
-                portalLocations.get(cellType).add(location);
-            } else {
-                colorWallAndSpace(location, cellType, bg);
-                Item item = createItem(cellType);
-                if (item != null) {
-                    putItem(location, item, level);
-                } else if (cellType == CellType.WALL) {
-                    wallLocations.add(indexConverter.getIndexByLocation(location));
+        for (CellType cellType : CellType.values()) {
+            for (int cell : locations.getItemCells(cellType)) {
+                Location location = indexConverter.getLocationByIndex(cell);
+
+                if (CellType.PORTALS.contains(cellType)) {
+                    portalLocations.computeIfAbsent(cellType, k -> new ArrayList<>());
+                    portalLocations.get(cellType).add(location);
+                } else {
+                    if (bg != null)
+                        colorWallAndSpace(location, cellType, bg);
+                    if (cellType.isEatable()) {
+                        putItem(location, cellType, null, level);
+                    } else if (cellType == CellType.WALL) {
+                        cellTypes[cell] = (byte) CellType.WALL.ordinal();
+                    }
                 }
             }
         }
 
         for (final var entry: portalLocations.entrySet()) {
-            putItem(entry.getValue().get(0), new Portal(entry.getKey(), entry.getValue().get(1)), level);
-            putItem(entry.getValue().get(1), new Portal(entry.getKey(), entry.getValue().get(0)), level);
+            putItem(entry.getValue().get(0), entry.getKey(), entry.getValue().get(1), level);
+            putItem(entry.getValue().get(1), entry.getKey(), entry.getValue().get(0), level);
         }
+
+        this.navGraph = new NavGraph(this);
+    }
+
+    /**
+     * Creates an ItemManager for a headless level,
+     * keeping track of the cells only (i.e. no item actors are created).
+     * @param map: The map containing the initial actors' location information.
+     */
+    public ItemManager(PacManMap map) {
+        this(map, null);
     }
 
 
@@ -78,13 +133,22 @@ public class ItemManager implements LocationExpert {
     }
 
     /**
-     * Factory method to create the item corresponding to the given cell type.
+     * Checks whether the items of the given type are only painted on the background,
+     * with no actor: a pill has no sprite and never acts, so it lives in the cells only,
+     * keeping the (possibly thousands of) pills out of the game grid's per-cycle actor loop.
+     * @param type: the type of the item
+     * @return true if the items of this type have no actor, false otherwise.
+     */
+    private static boolean isPaintedOnly(CellType type) {
+        return type == CellType.PILL;
+    }
+
+    /**
+     * Factory method to create the item actor corresponding to the given cell type (a pill has none).
      * @return the required item is the cellType if valid, null otherwise
      */
-    private Item createItem(ActorType cellType) {
-        if (CellType.PILL.equals(cellType)) {
-            return new Pill();
-        } else if (CellType.GOLD.equals(cellType)) {
+    private Item createItem(CellType cellType) {
+        if (CellType.GOLD.equals(cellType)) {
             return new Gold();
         } else if (CellType.ICE.equals(cellType)) {
             return new IceCube();
@@ -93,15 +157,31 @@ public class ItemManager implements LocationExpert {
     }
 
     /**
-     * Puts the given item at the given location in the level.
+     * Puts an item of the given type at the given location in the level.
      * @param location: the location for the item
-     * @param item: the item to put
+     * @param type: the type of the item
+     * @param partnerLocation: the location of the partner portal, if the item is a portal
+     * @param level: the level for the item actor, null if headless.
      */
-    private void putItem(Location location, Item item, Level level) {
-        level.getBg().setPaintColor(item.getColor());
-        level.getBg().fillCircle(level.toPoint(location), Item.getFillCircleRadius());
+    private void putItem(Location location, CellType type, Location partnerLocation, Level level) {
+        int index = indexConverter.getIndexByLocation(location);
+        cellTypes[index] = (byte) type.ordinal();
+        if (itemIndex != null)
+            itemIndex.add(index, type);
+        setLive(index, type, true);
+        if (type == CellType.GOLD)
+            goldLocations.add(location);
+
+        if (level == null)
+            return; // headless, no actors nor painting
+
+        bg.setPaintColor(type.getColor());
+        bg.fillCircle(level.toPoint(location), Item.getFillCircleRadius());
+        if (isPaintedOnly(type))
+            return;
 
-        items.put(indexConverter.getIndexByLocation(location), item);
+        Item item = type.isPortal() ? new Portal(type, partnerLocation) : createItem(type);
+        items[index] = item;
         level.addActor(item, location);
     }
 
@@ -111,90 +191,162 @@ public class ItemManager implements LocationExpert {
      * @return the closest location to the target.
      */
     public Location closestItemLocation(Location target) {
-        int currentMinDistance = Integer.MAX_VALUE;
-        Location currentClosestLocation = null;
+        return closestItemLocation(target, ALL_CELL_TYPES);
+    }
 
-        for (Map.Entry<Integer, Item> entry: items.entrySet()) {
-            Item item = entry.getValue();
-            if (item.getType() != CellType.PILL && !item.isVisible())
-                continue; // already removed
+    /**
+     * Returns the closest location of an item of the given types to the given location.
+     * @param target: the target location
+     * @param types: the types of items to look for
+     * @return the closest location to the target, null if there is no such item.
+     */
+    public Location closestItemLocation(Location target, Collection<CellType> types) {
+        int cell = getItemIndex().nearest(target, types);
+        return cell == NavGraph.NO_CELL ? null : indexConverter.getLocationByIndex(cell);
+    }
 
-            Location itemLocation = new LocationIndexConverter(horizontalCellsCount).getLocationByIndex(entry.getKey());
-            int distanceToItem = target.getDistanceTo(itemLocation);
+    /**
+     * Returns the k closest locations of items of the given types to the given location.
+     * @param target: the target location
+     * @param k: the maximum number of locations to return
+     * @param types: the types of items to look for
+     * @return the locations found, from the closest to the target.
+     */
+    public List<Location> closestItemLocations(Location target, int k, Collection<CellType> types) {
+        return Arrays.stream(getItemIndex().kNearest(target, k, types))
+                     .mapToObj(indexConverter::getLocationByIndex)
+                     .toList();
+    }
 
-            if (distanceToItem < currentMinDistance) {
-                currentClosestLocation = itemLocation;
-                currentMinDistance = distanceToItem;
+
+    /**
+     * Gets the spatial index of the live items, building it on the first lookup:
+     * the auto player steers by the pill distance field and no monster looks for items,
+     * so a level only pays for the index if something actually queries it.
+     * @return the index, kept up to date as the items are removed.
+     */
+    private ItemSpatialIndex getItemIndex() {
+        if (itemIndex == null) {
+            itemIndex = new ItemSpatialIndex(horizontalCellsCount, verticalCellsCount);
+            for (Map.Entry<CellType, BitSet> entry : liveItemCells.entrySet()) {
+                BitSet cells = entry.getValue();
+                for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1))
+                    itemIndex.add(cell, entry.getKey());
             }
         }
-
-        return currentClosestLocation;
+        return itemIndex;
     }
 
-
     /**
      * Removes the item at the given location.
-     * (Only plain pills are explicitly removed, other items are just hidden.)
+     * (The actors of golds and ice cubes are just hidden, but no longer found here;
+     * the pills are only painted, so they are just painted over.)
      * @param location: location of the item to remove
      */
     public void removeItem(Location location) {
-        Item item = getItem(location);
-        if (item == null)
-            return;
+        CellType type = getTypeAt(location);
+        if (type == CellType.SPACE || type == CellType.WALL)
+            return; // no item here
+        int index = indexConverter.getIndexByLocation(location);
 
         // recolor the cell to a space
-        item.getBackground().fillCell(item.getLocation(), CellType.SPACE.getColor());
-        item.hide();
-
-        // need to explicitly remove the pill
-        // as hide() is ineffective for actors with no sprite
-        if (item.getType().equals(CellType.PILL)) {
-            items.remove(indexConverter.getIndexByLocation(location));
-        }
+        if (bg != null)
+            bg.fillCell(location, CellType.SPACE.getColor());
+        Item item = items[index];
+        if (item != null)
+            item.hide();
+        if (itemIndex != null)
+            itemIndex.remove(index, type);
+        setLive(index, type, false);
+
+        items[index] = null;
+        cellTypes[index] = (byte) CellType.SPACE.ordinal();
+
+        if (pillDistanceField != null)
+            pillDistanceField.removeItem(index);
     }
 
     /**
-     * Gets the item at the specified location.
+     * Gets the item actor at the specified location.
+     * (Pills have no actor, see getTypeAt for the item type of any cell.)
      * @param location: the target location
      * @return the item at the given location,
-     *         null if the item is hidden or not found.
+     *         null if the item is removed, not found, or has no actor.
      */
     public Item getItem(Location location) {
-        Item item = items.get(indexConverter.getIndexByLocation(location));
-        if (item != null && item.getType() != CellType.PILL && !item.isVisible()) {
-            // 'removed' (hidden) gold or ice
+        if (!isInBound(location))
             return null;
-        }
-        return item;
+        return items[indexConverter.getIndexByLocation(location)];
     }
 
 
     /**
-     * Counts the number of pills (including golds).
+     * Marks an item as live or removed, updating the counts of its type.
+     * @param index: index of the item's cell
+     * @param type: type of the item
+     * @param isLive: true if the item is placed, false if it is removed.
+     */
+    private void setLive(int index, CellType type, boolean isLive) {
+        BitSet cells = liveItemCells.computeIfAbsent(type, k -> new BitSet());
+        if (cells.get(index) == isLive)
+            return;
+        cells.set(index, isLive);
+        liveItemCounts[type.ordinal()] += isLive ? 1 : -1;
+    }
+
+    /**
+     * Counts the number of remaining items of the given type.
+     * @param type: the type of items to count
+     * @return the number of items not removed yet.
+     */
+    public int countItems(CellType type) {
+        return liveItemCounts[type.ordinal()];
+    }
+
+    /**
+     * Counts the number of remaining pills (including golds).
      * @return the number of pills in the grid.
      */
     public int countPills() {
-        return (int) items.values().stream()
-                          .filter(i ->  i instanceof Pill)
-                          .count();
+        return countItems(CellType.PILL) + countItems(CellType.GOLD);
+    }
+
+    /**
+     * Counts the number of remaining eatable items (i.e. pills, golds and ice cubes).
+     * @return the number of eatable items in the grid.
+     */
+    public int countEatableItems() {
+        return countPills() + countItems(CellType.ICE);
+    }
+
+    /**
+     * Gets the locations of the remaining items of the given type.
+     * @param type: the type of items to look up
+     * @return a list of the locations of the items not removed yet.
+     */
+    public List<Location> getItemLocations(CellType type) {
+        BitSet cells = liveItemCells.get(type);
+        if (cells == null)
+            return List.of();
+        return cells.stream()
+                    .mapToObj(indexConverter::getLocationByIndex)
+                    .toList();
     }
 
     /**
      * Gets the list of gold locations.
-     * @return a list of all gold locations.
+     * @return a list of all gold locations, including the eaten golds.
      */
     public List<Location> getGoldLocations() { // for Orion
-        return items.entrySet().stream()
-                    .filter(i -> i.getValue() instanceof Gold)
-                    .map(i -> indexConverter.getLocationByIndex(i.getKey()))
-                    .toList();
+        return Collections.unmodifiableList(goldLocations);
     }
 
 
     /** {@inheritDoc} */
     public CellType getTypeAt(Location location) {
-        Item item = getItem(location);
-        return item == null ? CellType.SPACE : item.getType();
+        if (!isInBound(location))
+            return CellType.SPACE;
+        return CELL_TYPES[cellTypes[indexConverter.getIndexByLocation(location)]];
     }
 
     /** {@inheritDoc} */
@@ -210,6 +362,47 @@ public class ItemManager implements LocationExpert {
     /** {@inheritDoc} */
     @Override
     public boolean isWallAt(Location location) {
-        return wallLocations.contains(indexConverter.getIndexByLocation(location));
+        return isInBound(location)
+                && cellTypes[indexConverter.getIndexByLocation(location)] == CellType.WALL.ordinal();
+    }
+
+    /**
+     * Places or removes a wall at the given location,
+     * and updates the navigation graph around it.
+     * The portals cannot be walled, as their partners would still jump onto the wall.
+     * @param location: location of the wall
+     * @param isWall: true to place a wall, false to clear it to a space.
+     * @throws IllegalArgumentException if a wall is placed on a portal.
+     */
+    public void setWallAt(Location location, boolean isWall) {
+        if (isWallAt(location) == isWall)
+            return;
+        if (isWall && getTypeAt(location).isPortal())
+            throw new IllegalArgumentException("Cannot place a wall on the portal at " + location);
+        int index = indexConverter.getIndexByLocation(location);
+        if (isWall)
+            removeItem(location); // no item under a wall
+        CellType type = isWall ? CellType.WALL : CellType.SPACE;
+        cellTypes[index] = (byte) type.ordinal();
+        if (bg != null)
+            colorWallAndSpace(location, type, bg);
+        navGraph.setWall(index, isWall);
+        pillDistanceField = null; // the moves have changed, recompute when needed
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NavGraph getNavGraph() {
+        return navGraph;
+    }
+
+    /**
+     * Gets the distance field to the remaining pills and golds.
+     * @return the distance field, kept up to date as the items are removed.
+     */
+    public PillDistanceField getPillDistanceField() {
+        if (pillDistanceField == null)
+            pillDistanceField = new PillDistanceField(this);
+        return pillDistanceField;
     }
 }
@@ -0,0 +1,197 @@
+package game.Workers;
+
+import ch.aplu.jgamegrid.Location;
+import game.Items.CellType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+
+/**
+ * A spatial index of the live items of a level, for nearest item queries.
+ * Each cell type has its own uniform grid of buckets, each bucket covering
+ * BUCKET_SIZE x BUCKET_SIZE cells and holding the indices of the items inside.
+ * Queries scan the buckets ring by ring around the target, and stop as soon as
+ * no unscanned bucket can hold a closer item.
+ * Distances are Euclidean; ties are broken by the lowest cell index.
+ */
+public class ItemSpatialIndex {
+
+    public static final int BUCKET_SIZE = 4;
+
+    private final int horizontalCellsCount;
+    private final int horizontalBucketsCount;
+    private final int verticalBucketsCount;
+    private final LocationIndexConverter indexConverter;
+    private final EnumMap<CellType, BucketGrid> grids = new EnumMap<>(CellType.class);
+
+    /**
+     * Creates an empty index.
+     * @param horizontalCellsCount: the number of horizontal cells
+     * @param verticalCellsCount: the number of vertical cells.
+     */
+    public ItemSpatialIndex(int horizontalCellsCount, int verticalCellsCount) {
+        this.horizontalCellsCount = horizontalCellsCount;
+        this.horizontalBucketsCount = (horizontalCellsCount + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.verticalBucketsCount = (verticalCellsCount + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.indexConverter = new LocationIndexConverter(horizontalCellsCount);
+    }
+
+    /**
+     * Adds an item to the index.
+     * @param cell: the cell index of the item
+     * @param type: the cell type of the item.
+     */
+    public void add(int cell, CellType type) {
+        grids.computeIfAbsent(type, k -> new BucketGrid(horizontalBucketsCount * verticalBucketsCount))
+             .add(getBucket(cell), cell);
+    }
+
+    /**
+     * Removes an item from the index.
+     * @param cell: the cell index of the item
+     * @param type: the cell type of the item.
+     */
+    public void remove(int cell, CellType type) {
+        BucketGrid grid = grids.get(type);
+        if (grid != null)
+            grid.remove(getBucket(cell), cell);
+    }
+
+    /**
+     * Finds the item closest to the target, among the given types.
+     * @param target: the target location
+     * @param types: the cell types of the items to consider.
+     * @return the cell index of the closest item, NavGraph.NO_CELL if there is none.
+     */
+    public int nearest(Location target, Collection<CellType> types) {
+        int[] result = kNearest(target, 1, types);
+        return result.length == 0 ? NavGraph.NO_CELL : result[0];
+    }
+
+    /**
+     * Finds the k items closest to the target, among the given types.
+     * @param target: the target location
+     * @param k: the maximum number of items to find
+     * @param types: the cell types of the items to consider.
+     * @return the cell indices of the items found, from the closest.
+     */
+    public int[] kNearest(Location target, int k, Collection<CellType> types) {
+        final int targetBucketX = Math.floorDiv(target.x, BUCKET_SIZE);
+        final int targetBucketY = Math.floorDiv(target.y, BUCKET_SIZE);
+        final int maxRing = Math.max(
+                Math.max(targetBucketX, horizontalBucketsCount - 1 - targetBucketX),
+                Math.max(targetBucketY, verticalBucketsCount - 1 - targetBucketY));
+
+        // candidates as (squared distance, cell index), so that sorting them orders by distance then index
+        long[] candidates = new long[Math.max(k, 8)];
+        int candidatesCount = 0;
+        for (int ring = 0; ring <= maxRing && k > 0; ring++) {
+            for (int bucketY = targetBucketY - ring; bucketY <= targetBucketY + ring; bucketY++) {
+                if (bucketY < 0 || bucketY >= verticalBucketsCount)
+                    continue;
+                // only the border of the ring, i.e. every bucket of the top and bottom rows
+                final int step = (bucketY == targetBucketY - ring || bucketY == targetBucketY + ring) ? 1 : 2 * ring;
+                for (int bucketX = targetBucketX - ring; bucketX <= targetBucketX + ring; bucketX += step) {
+                    if (bucketX < 0 || bucketX >= horizontalBucketsCount)
+                        continue;
+                    final int bucket = bucketY * horizontalBucketsCount + bucketX;
+                    for (CellType type : types) {
+                        BucketGrid grid = grids.get(type);
+                        if (grid == null)
+                            continue;
+                        for (int i = 0; i < grid.sizes[bucket]; i++) {
+                            final int cell = grid.buckets[bucket][i];
+                            if (candidatesCount == candidates.length)
+                                candidates = Arrays.copyOf(candidates, 2 * candidates.length);
+                            candidates[candidatesCount++] = ((long) getSquaredDistance(target, cell) << 32) | cell;
+                        }
+                    }
+                }
+            }
+
+            // items outside the rings scanned so far are at least this far on one axis
+            final long nextRingDistance = (long) ring * BUCKET_SIZE + 1;
+            if (candidatesCount >= k) {
+                Arrays.sort(candidates, 0, candidatesCount);
+                candidatesCount = k; // farther candidates can never come back
+                if ((candidates[k - 1] >>> 32) < nextRingDistance * nextRingDistance)
+                    break;
+            }
+        }
+
+        Arrays.sort(candidates, 0, candidatesCount);
+        int[] result = new int[Math.min(k, candidatesCount)];
+        for (int i = 0; i < result.length; i++)
+            result[i] = (int) candidates[i];
+        return result;
+    }
+
+    /**
+     * Gets the bucket containing a cell.
+     * @param cell: the cell index
+     * @return the bucket index.
+     */
+    private int getBucket(int cell) {
+        return (cell / horizontalCellsCount / BUCKET_SIZE) * horizontalBucketsCount
+                + (cell % horizontalCellsCount) / BUCKET_SIZE;
+    }
+
+    /**
+     * Gets the squared Euclidean distance from a location to a cell.
+     * @param target: the location
+     * @param cell: the cell index
+     * @return the squared distance.
+     */
+    private int getSquaredDistance(Location target, int cell) {
+        Location location = indexConverter.getLocationByIndex(cell);
+        int dx = location.x - target.x;
+        int dy = location.y - target.y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * The buckets of a single cell type, each an unordered array of cell indices.
+     */
+    private static class BucketGrid {
+
+        private final int[][] buckets;
+        private final int[] sizes;
+
+        /**
+         * Creates empty buckets.
+         * @param bucketsCount: the number of buckets.
+         */
+        public BucketGrid(int bucketsCount) {
+            this.buckets = new int[bucketsCount][];
+            this.sizes = new int[bucketsCount];
+        }
+
+        /**
+         * Adds a cell to a bucket.
+         * @param bucket: the bucket index
+         * @param cell: the cell index.
+         */
+        public void add(int bucket, int cell) {
+            if (buckets[bucket] == null)
+                buckets[bucket] = new int[BUCKET_SIZE];
+            else if (sizes[bucket] == buckets[bucket].length)
+                buckets[bucket] = Arrays.copyOf(buckets[bucket], 2 * sizes[bucket]);
+            buckets[bucket][sizes[bucket]++] = cell;
+        }
+
+        /**
+         * Removes a cell from a bucket, by moving the last cell of the bucket in its place.
+         * @param bucket: the bucket index
+         * @param cell: the cell index.
+         */
+        public void remove(int bucket, int cell) {
+            for (int i = 0; i < sizes[bucket]; i++) {
+                if (buckets[bucket][i] == cell) {
+                    buckets[bucket][i] = buckets[bucket][--sizes[bucket]];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package game.Workers;
+
+import game.CharacterType;
+import game.Items.CellType;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The item and character locations of a map, as read by a MapReader:
+ * the cell indices (see LocationIndexConverter) of each type, in primitive arrays.
+ * Immutable, so it can be kept for as long as the map does not change.
+ */
+public class MapLocations {
+    private static final int[] NO_CELLS = new int[0];
+
+    // the cells of each item type, in increasing index order
+    private final EnumMap<CellType, int[]> itemCells = new EnumMap<>(CellType.class);
+    // the characters, in the order they are set up in
+    private final int[] characterCells;
+    private final CharacterType[] characterTypes;
+
+    /**
+     * Groups the read locations by type.
+     * @param itemTypes: the item type of each cell, by index (null for no item entry)
+     * @param characters: the character type for each cell index; the characters are set up
+     *                    in the iteration order of this HashMap, as they always have been
+     *                    (the actors' act order depends on it).
+     */
+    MapLocations(CellType[] itemTypes, HashMap<Integer, CharacterType> characters) {
+        int[] counts = new int[CellType.values().length];
+        for (CellType type : itemTypes) {
+            if (type != null)
+                counts[type.ordinal()]++;
+        }
+        for (CellType type : CellType.values()) {
+            if (counts[type.ordinal()] > 0)
+                itemCells.put(type, new int[counts[type.ordinal()]]);
+        }
+        int[] filled = new int[counts.length];
+        for (int cell = 0; cell < itemTypes.length; cell++) {
+            CellType type = itemTypes[cell];
+            if (type != null)
+                itemCells.get(type)[filled[type.ordinal()]++] = cell;
+        }
+
+        this.characterCells = new int[characters.size()];
+        this.characterTypes = new CharacterType[characters.size()];
+        int i = 0;
+        for (Map.Entry<Integer, CharacterType> entry : characters.entrySet()) {
+            characterCells[i] = entry.getKey();
+            characterTypes[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Gets the cells of an item type.
+     * @param type: the item type
+     * @return the cell indices, in increasing order (not to be modified).
+     */
+    public int[] getItemCells(CellType type) {
+        return itemCells.getOrDefault(type, NO_CELLS);
+    }
+
+    /**
+     * @return the number of characters on the map.
+     */
+    public int getCharacterCount() {
+        return characterCells.length;
+    }
+
+    /**
+     * Gets the cell of a character.
+     * @param i: the character's rank in the set up order
+     * @return the cell index of the character.
+     */
+    public int getCharacterCell(int i) {
+        return characterCells[i];
+    }
+
+    /**
+     * Gets the type of a character.
+     * @param i: the character's rank in the set up order
+     * @return the type of the character.
+     */
+    public CharacterType getCharacterType(int i) {
+        return characterTypes[i];
+    }
+}
@@ -0,0 +1,78 @@
+package game.Workers;
+
+import ch.aplu.jgamegrid.Location;
+
+/**
+ * An occupancy index of the monsters of a level, keyed by cell index:
+ * answers whether a monster is at a cell in constant time, whatever the number of monsters.
+ * (The cells near the monsters are marked by the DangerOverlay, rebuilt once per cycle.)
+ * The monsters must report their moves (see Monster.move() and SimulatedMonster).
+ */
+public class MonsterOccupancy {
+    private final int horizontalCellsCount;
+    private final int verticalCellsCount;
+    private final LocationIndexConverter indexConverter;
+    // the number of monsters at each cell, by cell index
+    private final int[] monstersAt;
+
+    /**
+     * Creates an empty index.
+     * @param horizontalCellsCount: the number of horizontal cells
+     * @param verticalCellsCount: the number of vertical cells.
+     */
+    public MonsterOccupancy(int horizontalCellsCount, int verticalCellsCount) {
+        this.horizontalCellsCount = horizontalCellsCount;
+        this.verticalCellsCount = verticalCellsCount;
+        this.indexConverter = new LocationIndexConverter(horizontalCellsCount);
+        this.monstersAt = new int[horizontalCellsCount * verticalCellsCount];
+    }
+
+    /**
+     * Adds a monster to the index.
+     * @param location: location of the monster.
+     */
+    public void add(Location location) {
+        if (isInBound(location))
+            monstersAt[indexConverter.getIndexByLocation(location)]++;
+    }
+
+    /**
+     * Removes a monster from the index.
+     * @param location: the last location of the monster.
+     */
+    public void remove(Location location) {
+        if (isInBound(location))
+            monstersAt[indexConverter.getIndexByLocation(location)]--;
+    }
+
+    /**
+     * Moves a monster in the index.
+     * @param from: the previous location of the monster
+     * @param to: the new location of the monster.
+     */
+    public void move(Location from, Location to) {
+        if (from.equals(to))
+            return;
+        remove(from);
+        add(to);
+    }
+
+    /**
+     * Checks if there is a monster at the location.
+     * @param location: the location to be checked
+     * @return true if a monster is there, false otherwise.
+     */
+    public boolean isMonsterAt(Location location) {
+        return isInBound(location) && monstersAt[indexConverter.getIndexByLocation(location)] > 0;
+    }
+
+    /**
+     * Checks if the location is in the grid.
+     * @param location: the location to be checked
+     * @return true if in bound, false otherwise.
+     */
+    private boolean isInBound(Location location) {
+        return location.x >= 0 && location.x < horizontalCellsCount
+                && location.y >= 0 && location.y < verticalCellsCount;
+    }
+}
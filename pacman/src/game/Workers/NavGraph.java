@@ -0,0 +1,373 @@
+package game.Workers;
+
+import ch.aplu.jgamegrid.Location;
+import game.ActorType;
+import game.Items.CellType;
+import game.LocationExpert;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The navigation graph of a map, compiled once from a location expert.
+ * Cells are identified by their index (see LocationIndexConverter).
+ * The adjacency is kept in flat arrays with one row of NB_DIRECTIONS slots per cell,
+ * where slot `d` holds the open cell in the direction `90 * d` (or NO_CELL).
+ * Moves onto a portal land directly on its partner.
+ * Only the walls can change afterwards; eating items does not affect the graph.
+ * The graph also keeps the corridor score of each move (see OneWayChecker),
+ * used for ordering the neighbours in path searches.
+ */
+public class NavGraph {
+
+    public static final int NB_DIRECTIONS = 4;
+    public static final int NO_CELL = -1;
+    // the edge arrays hold NB_DIRECTIONS slots per cell, indexed by int
+    public static final int MAX_CELLS_COUNT = Integer.MAX_VALUE / NB_DIRECTIONS;
+    /* cell index offset for each direction, in the order of 0, 90, 180 and 270 degrees */
+    private static final int[] DX = {1, 0, -1, 0};
+    private static final int[] DY = {0, 1, 0, -1};
+
+    private final int horizontalCellsCount;
+    private final int verticalCellsCount;
+    private final LocationIndexConverter indexConverter;
+
+    private final boolean[] walls;
+    // the partner of each portal cell, NO_CELL if the cell is not a (paired) portal
+    private final int[] portalPartners;
+    // the (paired) portal cells, in reading order
+    private final int[] portals;
+    // neighbours[cell * NB_DIRECTIONS + d]: the adjacent open cell in direction d
+    private final int[] neighbours;
+    // landings[cell * NB_DIRECTIONS + d]: where a move in direction d ends (i.e. after a portal jump)
+    private final int[] landings;
+    // corridorScores[cell * NB_DIRECTIONS + d]: OneWayChecker's score of the cell facing direction d
+    private final int[] corridorScores;
+
+    /**
+     * Compiles the navigation graph of the given location expert.
+     * @param locationExpert: the information expert for the walls and portals.
+     */
+    public NavGraph(LocationExpert locationExpert) {
+        this.horizontalCellsCount = locationExpert.getHorizontalCellsCount();
+        this.verticalCellsCount = locationExpert.getVerticalCellsCount();
+        this.indexConverter = new LocationIndexConverter(horizontalCellsCount);
+
+        final int cellsCount = countCells(horizontalCellsCount, verticalCellsCount);
+        this.walls = new boolean[cellsCount];
+        this.portalPartners = new int[cellsCount];
+        this.neighbours = new int[cellsCount * NB_DIRECTIONS];
+        this.landings = new int[cellsCount * NB_DIRECTIONS];
+        this.corridorScores = new int[cellsCount * NB_DIRECTIONS];
+
+        // a single scan for both the walls and the portals
+        HashMap<CellType, List<Integer>> portalCells = new HashMap<>();
+        for (int index = 0; index < cellsCount; index++) {
+            Location location = indexConverter.getLocationByIndex(index);
+            walls[index] = locationExpert.isWallAt(location);
+            portalPartners[index] = NO_CELL;
+
+            ActorType type = locationExpert.getTypeAt(location);
+            if (type instanceof CellType && ((CellType) type).isPortal()) {
+                portalCells.computeIfAbsent((CellType) type, k -> new ArrayList<>()).add(index);
+            }
+        }
+        for (List<Integer> cells : portalCells.values()) {
+            if (cells.size() < 2)
+                continue; // unpaired portal -> a plain cell
+            // the first portal (in reading order) pairs with the second, all others with the first
+            portalPartners[cells.get(0)] = cells.get(1);
+            for (int i = 1; i < cells.size(); i++)
+                portalPartners[cells.get(i)] = cells.get(0);
+        }
+        int nbPortals = 0;
+        for (int index = 0; index < cellsCount; index++)
+            nbPortals += isPortal(index) ? 1 : 0;
+        this.portals = new int[nbPortals];
+        for (int index = 0, i = 0; index < cellsCount; index++)
+            if (isPortal(index))
+                portals[i++] = index;
+
+        for (int index = 0; index < cellsCount; index++)
+            updateRow(index);
+        updateCorridorScores();
+    }
+
+    /**
+     * Counts the cells of a map, checking that its navigation graph can be indexed
+     * (i.e. that the map has at most MAX_CELLS_COUNT cells).
+     * @param horizontalCellsCount: the number of horizontal cells
+     * @param verticalCellsCount: the number of vertical cells
+     * @return the number of cells.
+     * @throws IllegalArgumentException if the map has too many cells.
+     */
+    public static int countCells(int horizontalCellsCount, int verticalCellsCount) {
+        try {
+            int cellsCount = Math.multiplyExact(horizontalCellsCount, verticalCellsCount);
+            Math.multiplyExact(cellsCount, NB_DIRECTIONS);
+            return cellsCount;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Map too large: " + horizontalCellsCount + "x"
+                    + verticalCellsCount + " cells, at most " + MAX_CELLS_COUNT + " cells are supported");
+        }
+    }
+
+    /**
+     * Gets the number of cells (i.e. the upper bound of cell indices).
+     * @return the number of cells in the graph.
+     */
+    public int getCellsCount() {
+        return horizontalCellsCount * verticalCellsCount;
+    }
+
+    /**
+     * Gets the converter between locations and the cell indices of this graph.
+     * @return the index converter.
+     */
+    public LocationIndexConverter getIndexConverter() {
+        return indexConverter;
+    }
+
+    /**
+     * Gets the index of the cell at the given location.
+     * @param location: the location to look up
+     * @return the cell index, NO_CELL if the location is out of bound.
+     */
+    public int getIndex(Location location) {
+        if (location.x < 0 || location.x >= horizontalCellsCount
+                || location.y < 0 || location.y >= verticalCellsCount)
+            return NO_CELL;
+        return indexConverter.getIndexByLocation(location);
+    }
+
+    /**
+     * Gets the open cell next to the given cell.
+     * @param cell: the cell index
+     * @param direction: the direction index, i.e. the direction in degrees divided by 90
+     * @return the adjacent cell index, NO_CELL if it is a wall or out of bound.
+     */
+    public int getNeighbour(int cell, int direction) {
+        return neighbours[cell * NB_DIRECTIONS + direction];
+    }
+
+    /**
+     * Gets the cell where a move from the given cell ends,
+     * i.e. the partner portal if the adjacent cell is a portal.
+     * @param cell: the cell index
+     * @param direction: the direction index, i.e. the direction in degrees divided by 90
+     * @return the landing cell index, NO_CELL if the move is blocked.
+     */
+    public int getLanding(int cell, int direction) {
+        return landings[cell * NB_DIRECTIONS + direction];
+    }
+
+    /**
+     * Gets the corridor score of a cell facing a direction,
+     * i.e. the same value as `OneWayChecker.isOneWayAt(location, 90 * direction)`.
+     * @param cell: the cell index
+     * @param direction: the direction index, i.e. the direction in degrees divided by 90
+     * @return 0 if the corridor ahead is a dead end, 2 if it opens to both sides.
+     */
+    public int getCorridorScore(int cell, int direction) {
+        return corridorScores[cell * NB_DIRECTIONS + direction];
+    }
+
+    /**
+     * Checks whether the cell is a wall.
+     * @param cell: the cell index
+     * @return true if it is a wall, false otherwise.
+     */
+    public boolean isWall(int cell) {
+        return walls[cell];
+    }
+
+    /**
+     * Checks whether the cell is a (paired) portal.
+     * @param cell: the cell index
+     * @return true if it is a portal, false otherwise.
+     */
+    public boolean isPortal(int cell) {
+        return portalPartners[cell] != NO_CELL;
+    }
+
+    /**
+     * Gets the partner of a portal.
+     * @param cell: the cell index of the portal
+     * @return the cell index of its partner, NO_CELL if the cell is not a portal.
+     */
+    public int getPortalPartner(int cell) {
+        return portalPartners[cell];
+    }
+
+    /**
+     * Gets all the (paired) portals of the graph.
+     * @return the cell indices of the portals, in reading order.
+     */
+    public int[] getPortals() {
+        return portals.clone();
+    }
+
+    /**
+     * Finds all the cells reachable from the given cell (itself included),
+     * with a single flood fill over the moves (portal jumps included).
+     * @param source: the cell index to start from
+     * @return the reachable cells, by index.
+     */
+    public BitSet getReachableCells(int source) {
+        BitSet reached = new BitSet(getCellsCount());
+        if (source == NO_CELL)
+            return reached;
+
+        // each cell is pushed at most once
+        int[] stack = new int[getCellsCount()];
+        int size = 0;
+        stack[size++] = source;
+        reached.set(source);
+        while (size > 0) {
+            int cell = stack[--size];
+            for (int slot = cell * NB_DIRECTIONS; slot < (cell + 1) * NB_DIRECTIONS; slot++) {
+                int landing = landings[slot];
+                if (landing != NO_CELL && !reached.get(landing)) {
+                    reached.set(landing);
+                    stack[size++] = landing;
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Sets or clears a wall, updating the edges of that cell and of its neighbours only,
+     * and the corridor scores along its row and column.
+     * @param cell: the cell index
+     * @param isWall: whether the cell becomes a wall.
+     * @throws IllegalArgumentException if the cell is a portal becoming a wall.
+     */
+    void setWall(int cell, boolean isWall) {
+        if (walls[cell] == isWall)
+            return;
+        if (isWall && isPortal(cell))
+            throw new IllegalArgumentException("Cannot wall the portal cell " + cell);
+        walls[cell] = isWall;
+
+        // only the edges from this cell and the edges onto it are affected
+        updateRow(cell);
+        for (int direction = 0; direction < NB_DIRECTIONS; direction++) {
+            int adjacent = getAdjacentCell(cell, direction);
+            if (adjacent != NO_CELL)
+                updateRow(adjacent);
+        }
+        // a wall can end corridors across the whole row or column
+        updateCorridorScoresAround(cell);
+    }
+
+    /**
+     * Recomputes the corridor scores affected by a change of the edges of a cell and of its neighbours:
+     * the score facing a direction only depends on the cells ahead in that direction,
+     * so only the runs of open cells leading to the changed cells need updating.
+     * @param cell: the cell index of the changed wall
+     */
+    private void updateCorridorScoresAround(int cell) {
+        for (int direction = 0; direction < NB_DIRECTIONS; direction++) {
+            // the changed cells, the furthest ahead in the direction first
+            updateCorridorScoresBehind(getAdjacentCell(cell, direction), direction);
+            updateCorridorScoresBehind(getAdjacentCell(cell, (direction + 1) % NB_DIRECTIONS), direction);
+            updateCorridorScoresBehind(getAdjacentCell(cell, (direction + 3) % NB_DIRECTIONS), direction);
+            updateCorridorScoresBehind(cell, direction);
+            updateCorridorScoresBehind(getAdjacentCell(cell, (direction + 2) % NB_DIRECTIONS), direction);
+        }
+    }
+
+    /**
+     * Recomputes the corridor score of a cell facing a direction,
+     * then of the cells behind it whose move in that direction leads onto it.
+     * @param cell: the cell index, NO_CELL for none
+     * @param direction: the direction index
+     */
+    private void updateCorridorScoresBehind(int cell, int direction) {
+        if (cell == NO_CELL)
+            return;
+        final int back = (direction + 2) % NB_DIRECTIONS;
+        updateCorridorScore(cell, direction);
+        for (int behind = getAdjacentCell(cell, back);
+             behind != NO_CELL && neighbours[behind * NB_DIRECTIONS + direction] == cell;
+             behind = getAdjacentCell(cell, back)) {
+            updateCorridorScore(behind, direction);
+            cell = behind;
+        }
+    }
+
+    /**
+     * Recomputes the outgoing edges of a cell.
+     * @param cell: the cell index
+     */
+    private void updateRow(int cell) {
+        for (int direction = 0; direction < NB_DIRECTIONS; direction++) {
+            int slot = cell * NB_DIRECTIONS + direction;
+            int adjacent = getAdjacentCell(cell, direction);
+            if (adjacent == NO_CELL || walls[adjacent]) {
+                neighbours[slot] = NO_CELL;
+                landings[slot] = NO_CELL;
+            } else {
+                neighbours[slot] = adjacent;
+                landings[slot] = isPortal(adjacent) ? portalPartners[adjacent] : adjacent;
+            }
+        }
+    }
+
+    /**
+     * Fills the corridor scores with linear sweeps instead of recursion.
+     * Walking straight ahead from a cell, the score is 0 if a wall (or the border) is met first,
+     * or 2 if a cell open on both sides is met first. (The sideway branches of
+     * OneWayChecker always turn towards a wall, thus never add to the score.)
+     * Hence each score only depends on the score of the next cell in the same direction:
+     * the backward sweep fills the east and south scores, the forward sweep the west and north ones.
+     */
+    private void updateCorridorScores() {
+        final int cellsCount = getCellsCount();
+        for (int cell = cellsCount - 1; cell >= 0; cell--) {
+            updateCorridorScore(cell, 0);
+            updateCorridorScore(cell, 1);
+        }
+        for (int cell = 0; cell < cellsCount; cell++) {
+            updateCorridorScore(cell, 2);
+            updateCorridorScore(cell, 3);
+        }
+    }
+
+    /**
+     * Computes the corridor score of a cell facing a direction,
+     * given the score of the next cell in that direction.
+     * @param cell: the cell index
+     * @param direction: the direction index
+     */
+    private void updateCorridorScore(int cell, int direction) {
+        int ahead = neighbours[cell * NB_DIRECTIONS + direction];
+        int score;
+        if (ahead == NO_CELL) {
+            score = 0;
+        } else if (neighbours[ahead * NB_DIRECTIONS + (direction + 1) % NB_DIRECTIONS] != NO_CELL
+                && neighbours[ahead * NB_DIRECTIONS + (direction + 3) % NB_DIRECTIONS] != NO_CELL) {
+            score = 2; // open on both sides
+        } else {
+            score = corridorScores[ahead * NB_DIRECTIONS + direction];
+        }
+        corridorScores[cell * NB_DIRECTIONS + direction] = score;
+    }
+
+    /**
+     * Gets the cell next to the given cell, regardless of walls.
+     * @param cell: the cell index
+     * @param direction: the direction index
+     * @return the adjacent cell index, NO_CELL if out of bound.
+     */
+    private int getAdjacentCell(int cell, int direction) {
+        int x = cell % horizontalCellsCount + DX[direction];
+        int y = cell / horizontalCellsCount + DY[direction];
+        if (x < 0 || x >= horizontalCellsCount || y < 0 || y >= verticalCellsCount)
+            return NO_CELL;
+        return y * horizontalCellsCount + x;
+    }
+}
@@ -0,0 +1,223 @@
+package game.Workers;
+
+import ch.aplu.jgamegrid.Location;
+import game.ActorType;
+import game.Items.CellType;
+import game.LocationExpert;
+
+import java.util.Arrays;
+
+/**
+ * The distance (in moves) from every cell to its closest pill or gold,
+ * computed by a single reverse Breadth-First-Search seeded from all of them at once.
+ * Moves follow the NavGraph, i.e. a move onto a portal lands on its partner.
+ * When an item is eaten, only the cells whose distance depended on it are recomputed.
+ */
+public class PillDistanceField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final int NO_DIRECTION = -1;
+
+    private final NavGraph graph;
+    private final int[] distances;
+    // the reverse edges, in compressed rows: predecessors[predecessorsStart[c] .. predecessorsStart[c + 1]]
+    // are the cells from which a single move lands on cell c
+    private final int[] predecessorsStart;
+    private final int[] predecessors;
+
+    /* scratch space for the incremental updates, reused across removals */
+    private final boolean[] affected;
+    private final int[] affectedCells;
+    private final int[] queue;
+
+    /**
+     * Computes the distance field of the pills and golds of the given location expert.
+     * @param locationExpert: the information expert for the items, walls and portals.
+     */
+    public PillDistanceField(LocationExpert locationExpert) {
+        this.graph = locationExpert.getNavGraph();
+        final int cellsCount = graph.getCellsCount();
+        this.distances = new int[cellsCount];
+        this.affected = new boolean[cellsCount];
+        this.affectedCells = new int[cellsCount];
+        this.queue = new int[cellsCount];
+
+        // count then fill the predecessors of each cell
+        this.predecessorsStart = new int[cellsCount + 1];
+        for (int cell = 0; cell < cellsCount; cell++) {
+            for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+                int landing = graph.getLanding(cell, direction);
+                if (landing != NavGraph.NO_CELL)
+                    predecessorsStart[landing + 1]++;
+            }
+        }
+        for (int cell = 0; cell < cellsCount; cell++)
+            predecessorsStart[cell + 1] += predecessorsStart[cell];
+        this.predecessors = new int[predecessorsStart[cellsCount]];
+        final int[] filled = Arrays.copyOf(predecessorsStart, cellsCount);
+        for (int cell = 0; cell < cellsCount; cell++) {
+            for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+                int landing = graph.getLanding(cell, direction);
+                if (landing != NavGraph.NO_CELL)
+                    predecessors[filled[landing]++] = cell;
+            }
+        }
+
+        // seed the search with all the pills and golds
+        final LocationIndexConverter indexConverter = graph.getIndexConverter();
+        Arrays.fill(distances, UNREACHABLE);
+        int tail = 0;
+        for (int cell = 0; cell < cellsCount; cell++) {
+            ActorType type = locationExpert.getTypeAt(indexConverter.getLocationByIndex(cell));
+            if (type == CellType.PILL || type == CellType.GOLD) {
+                distances[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        for (int head = 0; head < tail; head++)
+            tail = expand(queue[head], tail, false);
+    }
+
+    /**
+     * Gets the distance from a cell to its closest pill or gold.
+     * @param cell: the cell index
+     * @return the number of moves, UNREACHABLE if no item can be reached.
+     */
+    public int getDistance(int cell) {
+        return distances[cell];
+    }
+
+    /**
+     * Gets the distance from a location to its closest pill or gold.
+     * @param location: the location to look up
+     * @return the number of moves, UNREACHABLE if no item can be reached.
+     */
+    public int getDistance(Location location) {
+        int cell = graph.getIndex(location);
+        return cell == NavGraph.NO_CELL ? UNREACHABLE : distances[cell];
+    }
+
+    /**
+     * Gets the direction of a move one step closer to the closest pill or gold.
+     * Ties are broken as in the path searches: the lowest corridor score first, then the lowest direction.
+     * @param cell: the cell index
+     * @return the direction index, NO_DIRECTION if the cell is on an item or no item can be reached.
+     */
+    public int getDownhillDirection(int cell) {
+        final int distance = distances[cell];
+        if (distance == 0 || distance == UNREACHABLE)
+            return NO_DIRECTION;
+
+        int bestDirection = NO_DIRECTION;
+        int bestScore = Integer.MAX_VALUE;
+        for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+            int landing = graph.getLanding(cell, direction);
+            if (landing == NavGraph.NO_CELL || distances[landing] != distance - 1)
+                continue;
+            int score = graph.getCorridorScore(graph.getNeighbour(cell, direction), direction);
+            if (score < bestScore) {
+                bestDirection = direction;
+                bestScore = score;
+            }
+        }
+        return bestDirection;
+    }
+
+    /**
+     * Removes a pill or gold, and updates the distances depending on it.
+     * First finds the affected cells, i.e. those left with no neighbour one step closer to an item,
+     * in order of distance. Then recomputes them with a search seeded from the unaffected cells bordering them.
+     * Does nothing if the cell holds no pill or gold.
+     * @param cell: the cell index of the removed item.
+     */
+    public void removeItem(int cell) {
+        if (distances[cell] != 0)
+            return; // not an item
+
+        // find the affected cells, level by level
+        int affectedCount = 0;
+        affected[cell] = true;
+        affectedCells[affectedCount++] = cell;
+        for (int head = 0; head < affectedCount; head++) {
+            final int current = affectedCells[head];
+            for (int i = predecessorsStart[current]; i < predecessorsStart[current + 1]; i++) {
+                final int predecessor = predecessors[i];
+                if (!affected[predecessor] && distances[predecessor] == distances[current] + 1
+                        && !hasValidSuccessor(predecessor)) {
+                    affected[predecessor] = true;
+                    affectedCells[affectedCount++] = predecessor;
+                }
+            }
+        }
+
+        // seed each affected cell from its unaffected successors, sorted by distance
+        final long[] seeds = new long[affectedCount];
+        int seedsCount = 0;
+        for (int i = 0; i < affectedCount; i++) {
+            final int current = affectedCells[i];
+            int seedDistance = UNREACHABLE;
+            for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+                int landing = graph.getLanding(current, direction);
+                if (landing != NavGraph.NO_CELL && !affected[landing] && distances[landing] != UNREACHABLE)
+                    seedDistance = Math.min(seedDistance, distances[landing] + 1);
+            }
+            if (seedDistance != UNREACHABLE)
+                seeds[seedsCount++] = ((long) seedDistance << 32) | current;
+        }
+        Arrays.sort(seeds, 0, seedsCount);
+        for (int i = 0; i < affectedCount; i++)
+            distances[affectedCells[i]] = UNREACHABLE;
+
+        // merge the sorted seeds with the queue, so that the cells are settled by increasing distance
+        int head = 0;
+        int tail = 0;
+        int nextSeed = 0;
+        while (nextSeed < seedsCount || head < tail) {
+            if (nextSeed < seedsCount && (head == tail || (int) (seeds[nextSeed] >>> 32) <= distances[queue[head]])) {
+                final int seedCell = (int) seeds[nextSeed];
+                final int seedDistance = (int) (seeds[nextSeed++] >>> 32);
+                if (distances[seedCell] == UNREACHABLE) {
+                    distances[seedCell] = seedDistance;
+                    queue[tail++] = seedCell;
+                }
+            } else {
+                tail = expand(queue[head++], tail, true);
+            }
+        }
+
+        for (int i = 0; i < affectedCount; i++)
+            affected[affectedCells[i]] = false;
+    }
+
+    /**
+     * Checks whether a cell still has a successor one step closer to an item, which is not affected.
+     * @param cell: the cell index
+     * @return true if such a successor exists, false otherwise.
+     */
+    private boolean hasValidSuccessor(int cell) {
+        for (int direction = 0; direction < NavGraph.NB_DIRECTIONS; direction++) {
+            int landing = graph.getLanding(cell, direction);
+            if (landing != NavGraph.NO_CELL && !affected[landing] && distances[landing] == distances[cell] - 1)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the distance of the unreached predecessors of a settled cell, and enqueues them.
+     * @param cell: the settled cell index
+     * @param tail: the tail position of the queue
+     * @param affectedOnly: whether to only reach the affected cells.
+     * @return the new tail position of the queue.
+     */
+    private int expand(int cell, int tail, boolean affectedOnly) {
+        for (int i = predecessorsStart[cell]; i < predecessorsStart[cell + 1]; i++) {
+            final int predecessor = predecessors[i];
+            if (distances[predecessor] == UNREACHABLE && (!affectedOnly || affected[predecessor])) {
+                distances[predecessor] = distances[cell] + 1;
+                queue[tail++] = predecessor;
+            }
+        }
+        return tail;
+    }
+}
@@ -13,10 +13,11 @@ import java.util.HashMap;
  * file. (i.e. Preserves the original game's behavior.)
  */
 public class PropertyMapReader implements MapReader {
-    private final HashMap<Integer, ActorType> characterLocations = new HashMap<>();
-    private final HashMap<Integer, ActorType> itemLocations = new HashMap<>();
     /* Need info from the properties file -> Ask the propertyReader for help */
     private PropertyReader propertyReader;
+    // the map read last, and its locations
+    private PacManMap readMap;
+    private MapLocations locations;
 
     /**
      * Constructs a PropertyMapReader which employs the given property reader.
@@ -30,11 +31,14 @@ public class PropertyMapReader implements MapReader {
 
     /**
      * Reads the 'property' map (properties file + PacManGameGrid)
-     * and stores the actors' location information.
+     * to get the actors' location information.
      * @param map: the map to be read (should be a PacManGameGrid).
+     * @return the item and character locations.
      */
-    private void readPropertyMap(PacManMap map) {
+    private MapLocations readPropertyMap(PacManMap map) {
         LocationIndexConverter indexConverter = new LocationIndexConverter(map.getHorizontalCellsCount());
+        HashMap<Integer, CharacterType> characterLocations = new HashMap<>();
+        CellType[] itemTypes = new CellType[map.getHorizontalCellsCount() * map.getVerticalCellsCount()];
 
         for (CharacterType character : CharacterType.CHARACTER_TYPES) {
             Location location = propertyReader.readLocation(character.getName() + ".location");
@@ -52,48 +56,44 @@ public class PropertyMapReader implements MapReader {
         for (int y = 0; y < Level.DEFAULT_NB_VERT_CELLS; y++) {
             for (int x = 0; x < Level.DEFAULT_NB_HORZ_CELLS; x++) {
                 Location location = new Location(x, y);
-                ActorType cellType = map.getTypeAt(location);
+                CellType cellType = (CellType) map.getTypeAt(location);
                 if (cellType.equals(CellType.GOLD)) {
                     if (useMazeGoldLocations) {
-                        itemLocations.put(indexConverter.getIndexByLocation(location), cellType);
+                        itemTypes[indexConverter.getIndexByLocation(location)] = cellType;
                     } else {
-                        itemLocations.put(indexConverter.getIndexByLocation(location), CellType.SPACE);
+                        itemTypes[indexConverter.getIndexByLocation(location)] = CellType.SPACE;
                     }
                 } else if (cellType.equals(CellType.PILL)) {
                     if (useMazePillLocations) {
-                        itemLocations.put(indexConverter.getIndexByLocation(location), cellType);
+                        itemTypes[indexConverter.getIndexByLocation(location)] = cellType;
                     } else {
-                        itemLocations.put(indexConverter.getIndexByLocation(location), CellType.SPACE);
+                        itemTypes[indexConverter.getIndexByLocation(location)] = CellType.SPACE;
                     }
                 } else {
-                    itemLocations.put(indexConverter.getIndexByLocation(location), cellType);
+                    itemTypes[indexConverter.getIndexByLocation(location)] = cellType;
                 }
             }
         }
 
         /* put properties pills (does nothing if these lists are empty) */
         for (Location location : propertyGoldLocations)
-            itemLocations.put(indexConverter.getIndexByLocation(location), CellType.GOLD);
+            itemTypes[indexConverter.getIndexByLocation(location)] = CellType.GOLD;
         for (Location location : propertyPillLocations)
-            itemLocations.put(indexConverter.getIndexByLocation(location), CellType.PILL);
-    }
-
+            itemTypes[indexConverter.getIndexByLocation(location)] = CellType.PILL;
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public HashMap<Integer, ActorType> getCharacterLocations(PacManMap map) {
-        readPropertyMap(map);
-        return characterLocations;
+        return new MapLocations(itemTypes, characterLocations);
     }
 
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public HashMap<Integer, ActorType> getItemLocations(PacManMap map) {
-        readPropertyMap(map);
-        return itemLocations;
+    public MapLocations getLocations(PacManMap map) {
+        if (map != readMap) {
+            locations = readPropertyMap(map);
+            readMap = map;
+        }
+        return locations;
     }
 }
@@ -82,6 +82,17 @@ public class PropertyReader {
         return Boolean.parseBoolean(properties.getProperty(key));
     }
 
+    /**
+     * Reads and parses an integer value.
+     * @param key: key (String) to look up in the properties file
+     * @param defaultValue: the value if there's no corresponding value
+     * @return the corresponding integer value.
+     */
+    public int readInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
     /**
      * Reads and parses the moves.
      * @param key: key (String) to look up in the properties file
@@ -1,13 +1,14 @@
 package game.Workers;
 
 import ch.aplu.jgamegrid.Location;
-import game.ActorType;
-import game.Items.Item;
+import game.Items.CellType;
+import game.CharacterType;
 import game.Level;
+import game.SimulationClock;
 import game.Maps.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Properties;
 
 /**
@@ -25,17 +26,28 @@ public class SettingManager {
      * Constructs a SettingManager.
      * @param properties: properties file for the level
      * @param map: map on which the level is based
-     * @param level: game level to be managed by the setting manager.
+     * @param level: game level to be managed by the setting manager, null for a headless level.
      */
     public SettingManager(Properties properties, PacManMap map, Level level) {
         this.map = map;
         propertyReader = new PropertyReader(properties);
+        // the item manager always reads the map as an editor map, so an editor map is read only once
+        EditorMapReader editorMapReader = new EditorMapReader();
         if (map instanceof EditorMap)
-            mapReader = new EditorMapReader();
+            mapReader = editorMapReader;
         else
             mapReader = new PropertyMapReader(propertyReader);
 
-        itemManager = new ItemManager(map, level);
+        itemManager = new ItemManager(map, editorMapReader, level);
+    }
+
+    /**
+     * Constructs a SettingManager for a headless level (i.e. with no actors on a game grid).
+     * @param properties: properties file for the level
+     * @param map: map on which the level is based.
+     */
+    public SettingManager(Properties properties, PacManMap map) {
+        this(properties, map, null);
     }
 
     /* Wrapper methods using delegation */
@@ -58,19 +70,11 @@ public class SettingManager {
     }
 
     /**
-     * Gets the item locations from the map.
-     * @return the HashMap containing the items' locations.
-     */
-    public HashMap<Integer, ActorType> getItemLocations() {
-        return mapReader.getItemLocations(map);
-    }
-
-    /**
-     * Gets the character locations from the map.
-     * @return the HashMap containing the characters' (MovingActors) locations.
+     * Gets the item and character locations from the map (read once).
+     * @return the locations of the items, and of the characters (MovingActors).
      */
-    public HashMap<Integer, ActorType> getCharacterLocations() {
-        return mapReader.getCharacterLocations(map);
+    public MapLocations getLocations() {
+        return mapReader.getLocations(map);
     }
 
     /**
@@ -81,6 +85,30 @@ public class SettingManager {
         return propertyReader.getSeed();
     }
 
+    /**
+     * Creates the simulation clock set in the properties file
+     * (`Simulation.mode` and `Simulation.speedUp`, a fixed-step clock by default).
+     * @return a new clock, at the first cycle.
+     */
+    public SimulationClock createClock() {
+        return new SimulationClock(SimulationClock.parseMode(propertyReader.getProperty("Simulation.mode")),
+                                   propertyReader.readInt("Simulation.speedUp", 1));
+    }
+
+    /**
+     * Creates the danger overlay of the monsters set in the properties file
+     * (`<monster>.dangerRadius` for the radius of each monster type, DangerOverlay.DEFAULT_RADIUS by default,
+     * and `PacMan.dangerCost` for the extra cost of entering a danger zone, which is avoided by default).
+     * @return a new overlay, with no danger yet.
+     */
+    public DangerOverlay createDangerOverlay() {
+        EnumMap<CharacterType, Integer> radii = new EnumMap<>(CharacterType.class);
+        for (CharacterType type : CharacterType.CHARACTER_TYPES)
+            radii.put(type, propertyReader.readInt(type.getName() + ".dangerRadius", DangerOverlay.DEFAULT_RADIUS));
+        return new DangerOverlay(getHorizontalCellsCount(), getVerticalCellsCount(), radii,
+                                 propertyReader.readInt("PacMan.dangerCost", DangerOverlay.AVOID));
+    }
+
     /**
      * Gets the count of pills from the item manager.
      * @return the number of remaining pills.
@@ -106,11 +134,11 @@ public class SettingManager {
     }
 
     /**
-     * Gets the item at the given location from the item manager.
+     * Gets the type of the item at the given location from the item manager.
      * @param location: location to be looked up
-     * @return the item at that location.
+     * @return the item type at that location (SPACE if there is no item, WALL for a wall).
      */
-    public Item getItem(Location location) { return itemManager.getItem(location); }
+    public CellType getItemTypeAt(Location location) { return itemManager.getTypeAt(location); }
 
     /**
      * Removes the item at the given location (via the item manager).
@@ -0,0 +1,260 @@
+package game.utility;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes log lines from a background thread, so that the game thread never waits on the disk.
+ * The lines go through a bounded lock-free ring buffer, and are written (then flushed) in batches,
+ * as set by the flush policy.
+ * Each line is written as it is given, followed by "\n", in the order the lines were given.
+ */
+public class AsyncLogWriter {
+    private static final int DEFAULT_CAPACITY = 4096; // a power of 2
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * When the written lines are flushed: after a number of lines, or once the oldest unflushed line
+     * has waited for some time, whichever comes first.
+     */
+    public static class FlushPolicy {
+        public static final String MAX_LINES_KEY = "Log.flushLines";
+        public static final String MAX_DELAY_KEY = "Log.flushMillis";
+        public static final FlushPolicy DEFAULT = new FlushPolicy(256, 100);
+
+        private final int maxLines;
+        private final long maxDelayMillis;
+
+        /**
+         * Creates a flush policy.
+         * @param maxLines: the number of written lines that triggers a flush (1 to flush every line)
+         * @param maxDelayMillis: the longest time a written line may wait to be flushed, in milliseconds.
+         */
+        public FlushPolicy(int maxLines, long maxDelayMillis) {
+            if (maxLines < 1 || maxDelayMillis < 0)
+                throw new IllegalArgumentException("Invalid flush policy: " + maxLines + " lines, " + maxDelayMillis + " ms");
+            this.maxLines = maxLines;
+            this.maxDelayMillis = maxDelayMillis;
+        }
+
+        /**
+         * Reads a flush policy from the properties file, using the default values for the missing keys.
+         * @param properties: the properties file to be read
+         * @return the corresponding flush policy.
+         */
+        public static FlushPolicy fromProperties(Properties properties) {
+            String maxLines = properties.getProperty(MAX_LINES_KEY);
+            String maxDelay = properties.getProperty(MAX_DELAY_KEY);
+            return new FlushPolicy(
+                    maxLines == null ? DEFAULT.maxLines : Integer.parseInt(maxLines.trim()),
+                    maxDelay == null ? DEFAULT.maxDelayMillis : Long.parseLong(maxDelay.trim()));
+        }
+    }
+
+    private final Writer out;
+    private final FlushPolicy flushPolicy;
+
+    // the ring buffer: slot i holds line number (sequences[i] - 1) once published,
+    // and is free for line number sequences[i]
+    private final String[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong nextClaim = new AtomicLong(); // the next line number to be given
+    private volatile long flushedCount = 0; // the number of lines written and flushed
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean closing = false;
+    private volatile boolean closed = false;
+    private volatile boolean writerParked = false;
+    private volatile long drainTarget = 0;
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+
+    /**
+     * Creates an asynchronous writer with the default buffer capacity.
+     * @param out: the writer to write the lines to
+     * @param flushPolicy: when to flush the written lines.
+     */
+    public AsyncLogWriter(Writer out, FlushPolicy flushPolicy) {
+        this(out, flushPolicy, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an asynchronous writer.
+     * @param out: the writer to write the lines to
+     * @param flushPolicy: when to flush the written lines
+     * @param capacity: the maximum number of lines waiting to be written, a power of 2 (at least 2).
+     */
+    public AsyncLogWriter(Writer out, FlushPolicy flushPolicy, int capacity) {
+        // a slot's published and freed sequences would be the same with a capacity of 1
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("The capacity must be a power of 2, at least 2: " + capacity);
+        this.out = out;
+        this.flushPolicy = flushPolicy;
+        this.slots = new String[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            sequences.set(i, i);
+        this.mask = capacity - 1;
+
+        this.writerThread = new Thread(this::runWriter, "AsyncLogWriter");
+        writerThread.setDaemon(true);
+        // do not lose the last lines if the app exits mid-game
+        this.shutdownHook = new Thread(this::drain, "AsyncLogWriter-shutdown");
+    }
+
+    /**
+     * Gives a line to be written; waits only if the buffer is full.
+     * Once closed, the line is written (and flushed) directly.
+     * @param line: the line to be written, without its line separator.
+     */
+    public void write(String line) {
+        if (closing) {
+            writeDirectly(line);
+            return;
+        }
+        if (!started.get() && started.compareAndSet(false, true)) {
+            writerThread.start();
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+
+        long sequence = nextClaim.getAndIncrement();
+        int index = (int) (sequence & mask);
+        while (sequences.get(index) != sequence) { // full, wait for the writer
+            LockSupport.unpark(writerThread);
+            Thread.onSpinWait();
+        }
+        slots[index] = line;
+        sequences.set(index, sequence + 1); // publish
+
+        if (writerParked)
+            LockSupport.unpark(writerThread);
+    }
+
+    /**
+     * Waits until all the lines given so far are written and flushed.
+     */
+    public void drain() {
+        long target = nextClaim.get();
+        if (!started.get() || flushedCount >= target)
+            return;
+
+        if (drainTarget < target)
+            drainTarget = target;
+        while (flushedCount < target && writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(DRAIN_POLL_NANOS);
+        }
+    }
+
+    /**
+     * Drains the buffer and stops the background thread.
+     * Lines given afterwards are written directly.
+     */
+    public void close() {
+        if (closed)
+            return;
+        closing = true;
+        drain();
+        closed = true;
+        if (started.get()) {
+            LockSupport.unpark(writerThread);
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // already shutting down, the hook is running
+            }
+        }
+    }
+
+    /**
+     * Writes and flushes a line on the calling thread.
+     * @param line: the line to be written, without its line separator.
+     */
+    private void writeDirectly(String line) {
+        synchronized (out) {
+            try {
+                out.write(line);
+                out.write("\n");
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * The background thread's loop: writes the published lines in order, flushing as per the policy.
+     */
+    private void runWriter() {
+        final long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(flushPolicy.maxDelayMillis);
+        long next = 0; // the next line number to write
+        int unflushed = 0;
+        long oldestUnflushedTime = 0;
+
+        while (true) {
+            int index = (int) (next & mask);
+            if (sequences.get(index) == next + 1) { // published
+                String line = slots[index];
+                slots[index] = null;
+                sequences.set(index, next + slots.length); // free for the next round
+                next++;
+                synchronized (out) {
+                    try {
+                        out.write(line);
+                        out.write("\n");
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+                if (unflushed++ == 0)
+                    oldestUnflushedTime = System.nanoTime();
+                if (unflushed >= flushPolicy.maxLines) {
+                    flush(next);
+                    unflushed = 0;
+                }
+                continue;
+            }
+
+            // nothing to write for now
+            long waitNanos = maxDelayNanos - (System.nanoTime() - oldestUnflushedTime);
+            if (unflushed > 0 && (waitNanos <= 0 || drainTarget > flushedCount)) {
+                flush(next);
+                unflushed = 0;
+                continue;
+            }
+            if (closed && next == nextClaim.get())
+                return;
+
+            writerParked = true;
+            if (sequences.get(index) != next + 1 && !closed) {
+                if (unflushed > 0)
+                    LockSupport.parkNanos(this, waitNanos);
+                else
+                    LockSupport.park(this);
+            }
+            writerParked = false;
+        }
+    }
+
+    /**
+     * Flushes the written lines.
+     * @param writtenCount: the number of lines written so far.
+     */
+    private void flush(long writtenCount) {
+        synchronized (out) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        flushedCount = writtenCount;
+    }
+}
@@ -0,0 +1,175 @@
+package game.utility;
+
+import game.CharacterType;
+import game.Items.CellType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A compact game log: each event is a fixed-width binary record, written into a memory-mapped
+ * segment of the log file, so that logging neither formats nor allocates anything.
+ * BinaryEventLogDecoder turns such a log back into the text log of the GameCallback.
+ *
+ * The file starts with a header (MAGIC, VERSION, RECORD_SIZE), followed by records of:
+ * tick (int), kind (byte), actor (byte), x (int), y (int), code (short), score (int), pills (int).
+ * A record of kind 0 (i.e. zeroed) marks the end of the log.
+ */
+public class BinaryEventLog {
+    public static final int MAGIC = 0x504d454c; // "PMEL"
+    public static final short VERSION = 2; // 2: the coordinates widened to ints, for maps over 32767 cells wide
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_SIZE = 24;
+    public static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    /* record kinds, the actor being a CharacterType ordinal */
+    public static final byte END_OF_LOG = 0;
+    public static final byte LOCATION = 1; // actor at (x, y), with the PacMan's score and pills
+    public static final byte EAT = 2; // PacMan ate the item of CellType ordinal code at (x, y)
+    public static final byte END_OF_GAME = 3; // the game ended with ENDINGS[code]
+
+    /* the titles a game may end with */
+    public static final List<String> ENDINGS = List.of("YOU WIN", "GAME OVER");
+
+    private static final int SEGMENT_RECORDS = 64 * 1024;
+    private static final HashMap<String, CharacterType> CHARACTERS_BY_NAME = new HashMap<>();
+
+    static {
+        for (CharacterType type : CharacterType.values())
+            CHARACTERS_BY_NAME.put(type.getName(), type);
+    }
+
+    private final FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+
+    /**
+     * Creates (or overwrites) a binary log file.
+     * @param path: path to the log file
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    public BinaryEventLog(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.segmentStart = 0;
+        this.segment = map(segmentStart);
+        segment.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE);
+    }
+
+    /**
+     * Maps the segment of the file starting at the given position (growing the file as needed).
+     * @param start: position of the segment in the file
+     * @return the mapped segment.
+     * @throws IOException if the segment cannot be mapped.
+     */
+    private MappedByteBuffer map(long start) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, start,
+                HEADER_SIZE + (long) SEGMENT_RECORDS * RECORD_SIZE);
+        buffer.order(BYTE_ORDER);
+        return buffer;
+    }
+
+    /**
+     * Logs the new location of a character.
+     * @param tick: the simulation cycle of the event
+     * @param characterName: the name of the character (e.g. "PacMan", or a monster type)
+     * @param x: x coordinate of the new location
+     * @param y: y coordinate of the new location
+     * @param score: the PacMan's score (0 for monsters)
+     * @param pills: the PacMan's number of eaten pills (0 for monsters)
+     */
+    public void logLocation(int tick, String characterName, int x, int y, int score, int pills) {
+        CharacterType character = CHARACTERS_BY_NAME.get(characterName);
+        if (character == null)
+            throw new IllegalArgumentException("Unknown character: " + characterName);
+        putRecord(tick, LOCATION, character.ordinal(), x, y, 0, score, pills);
+    }
+
+    /**
+     * Logs the PacMan eating an item.
+     * @param tick: the simulation cycle of the event
+     * @param x: x coordinate of the item
+     * @param y: y coordinate of the item
+     * @param item: the type of the item eaten
+     */
+    public void logEat(int tick, int x, int y, CellType item) {
+        putRecord(tick, EAT, CharacterType.PACMAN.ordinal(), x, y, item.ordinal(), 0, 0);
+    }
+
+    /**
+     * Logs the end of the game.
+     * @param tick: the simulation cycle of the event
+     * @param title: the ending's title, one of ENDINGS
+     */
+    public void logEndOfGame(int tick, String title) {
+        int code = ENDINGS.indexOf(title);
+        if (code < 0)
+            throw new IllegalArgumentException("Unknown ending: " + title);
+        putRecord(tick, END_OF_GAME, 0, 0, 0, code, 0, 0);
+    }
+
+    /**
+     * Writes a record, mapping the next segment of the file if the current one is full.
+     * Synchronized as the PacMan may eat from the key listener's thread.
+     */
+    private synchronized void putRecord(int tick, byte kind, int actor, int x, int y, int code, int score, int pills) {
+        if (segment == null)
+            throw new IllegalStateException("The binary log is closed");
+        if (segment.remaining() < RECORD_SIZE) {
+            segmentStart += segment.position();
+            try {
+                segment = map(segmentStart);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot extend the binary log", e);
+            }
+        }
+        segment.putInt(tick)
+               .put(kind)
+               .put((byte) actor)
+               .putInt(x)
+               .putInt(y)
+               .putShort((short) code)
+               .putInt(score)
+               .putInt(pills);
+    }
+
+    /**
+     * Forces the log to the disk, trims the unused mapped space and closes the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void close() throws IOException {
+        if (segment == null)
+            return;
+        long size = segmentStart + segment.position();
+        segment.force();
+        segment = null;
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            // some platforms cannot truncate a mapped file, the decoder stops at the zeroed space anyway
+        }
+        channel.close();
+    }
+
+    /**
+     * Reads the header of a binary log.
+     * @param buffer: the log file's content, positioned at its start
+     * @throws IOException if this is not a binary log this version can read.
+     */
+    static void readHeader(ByteBuffer buffer) throws IOException {
+        buffer.order(BYTE_ORDER);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new IOException("Not a binary event log");
+        short version = buffer.getShort();
+        short recordSize = buffer.getShort();
+        if (version != VERSION || recordSize != RECORD_SIZE)
+            throw new IOException("Unsupported binary event log version " + version);
+    }
+}
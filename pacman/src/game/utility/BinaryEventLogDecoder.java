@@ -0,0 +1,87 @@
+package game.utility;
+
+import game.CharacterType;
+import game.Items.CellType;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Turns a binary event log back into the text log the GameCallback writes.
+ */
+public class BinaryEventLogDecoder {
+
+    /**
+     * Decodes a binary event log.
+     * @param binaryLog: path to the binary log
+     * @param out: where to write the text log
+     * @return the number of events decoded.
+     * @throws IOException if the binary log cannot be read, or the text log written.
+     */
+    public static long decode(Path binaryLog, Writer out) throws IOException {
+        try (FileChannel channel = FileChannel.open(binaryLog, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            BinaryEventLog.readHeader(buffer);
+
+            CharacterType[] characters = CharacterType.values();
+            CellType[] cellTypes = CellType.values();
+            long events = 0;
+            while (buffer.remaining() >= BinaryEventLog.RECORD_SIZE) {
+                int tick = buffer.getInt(); // not in the text log
+                byte kind = buffer.get();
+                int actor = buffer.get();
+                int x = buffer.getInt();
+                int y = buffer.getInt();
+                int code = buffer.getShort();
+                int score = buffer.getInt();
+                int pills = buffer.getInt();
+
+                String line;
+                switch (kind) {
+                    case BinaryEventLog.END_OF_LOG:
+                        return events;
+                    case BinaryEventLog.LOCATION:
+                        CharacterType character = characters[actor];
+                        line = character == CharacterType.PACMAN
+                                ? GameCallback.formatPacManLocation(x, y, score, pills)
+                                : GameCallback.formatMonsterLocation(character.getName(), x, y);
+                        break;
+                    case BinaryEventLog.EAT:
+                        line = GameCallback.formatPacManEat(x, y, cellTypes[code].getName());
+                        break;
+                    case BinaryEventLog.END_OF_GAME:
+                        line = BinaryEventLog.ENDINGS.get(code);
+                        break;
+                    default:
+                        throw new IOException("Corrupted binary event log at tick " + tick);
+                }
+                out.write(line);
+                out.write("\n");
+                events++;
+            }
+            return events;
+        }
+    }
+
+    /**
+     * Decodes a binary event log, to a text file or to the standard output.
+     * @param args: the binary log path, then optionally the text log path
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: BinaryEventLogDecoder <binary log> [text log]");
+            return;
+        }
+        try (Writer out = new BufferedWriter(args.length > 1 ? new FileWriter(args[1]) : new OutputStreamWriter(System.out))) {
+            decode(Paths.get(args[0]), out);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package game.utility;
+
+/**
+ * Estimates whether the per-cell structures of a map fit in the heap,
+ * so that a map too large is turned down with a clear error before anything is allocated,
+ * rather than failing with an OutOfMemoryError half way through.
+ */
+public class HeapBudget {
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    /**
+     * Gets the heap still available, i.e. the maximum heap size minus the heap in use.
+     * @return the available heap, in bytes.
+     */
+    public static long getAvailableBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * Checks whether the structures of a map fit in the available heap.
+     * @param cellsCount: the number of cells of the map
+     * @param bytesPerCell: the heap taken per cell by the structures
+     * @return true if they fit, false otherwise.
+     */
+    public static boolean fits(long cellsCount, long bytesPerCell) {
+        return cellsCount * bytesPerCell <= getAvailableBytes();
+    }
+
+    /**
+     * Describes the heap needed by the structures of a map, for error messages.
+     * @param cellsCount: the number of cells of the map
+     * @param bytesPerCell: the heap taken per cell by the structures
+     * @return e.g. "1000000 cells need about 107 MB, 52 MB available".
+     */
+    public static String describe(long cellsCount, long bytesPerCell) {
+        return cellsCount + " cells need about " + cellsCount * bytesPerCell / BYTES_PER_MEGABYTE + " MB, "
+                + getAvailableBytes() / BYTES_PER_MEGABYTE + " MB available";
+    }
+}
@@ -0,0 +1,51 @@
+package game.utility;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A singleton cache of the decoded sprite and tile images, keyed by path:
+ * each image file is read once, when first needed, then shared by all its users,
+ * so the shared images should not be modified.
+ * (The game actors' sprites are loaded by JGameGrid, whose sprite store also shares them by path.)
+ * Safe to use from several threads.
+ */
+public class ImageCache {
+    private static ImageCache instance = null; // singleton
+
+    private final ConcurrentHashMap<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the single instance of this cache.
+     * @return the ImageCache instance.
+     */
+    public static synchronized ImageCache getInstance() {
+        if (instance == null)
+            instance = new ImageCache();
+        return instance;
+    }
+
+    /**
+     * Gets the image of an image file, reading it only if not done already.
+     * @param filePath: path to the image file
+     * @return the shared image (not to be modified).
+     * @throws IOException if the file cannot be read, or is not an image.
+     */
+    public BufferedImage getImage(String filePath) throws IOException {
+        String key = Paths.get(filePath).toAbsolutePath().normalize().toString();
+        BufferedImage image = images.get(key);
+        if (image != null)
+            return image;
+
+        // read outside of the map, so that different files can be read at the same time
+        image = ImageIO.read(new File(filePath));
+        if (image == null)
+            throw new IOException("Not an image file: " + filePath);
+        BufferedImage cached = images.putIfAbsent(key, image);
+        return cached != null ? cached : image;
+    }
+}
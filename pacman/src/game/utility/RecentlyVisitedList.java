@@ -0,0 +1,33 @@
+package game.utility;
+
+import ch.aplu.jgamegrid.Location;
+
+import java.util.ArrayList;
+
+/**
+ * The locations recently visited by a moving character,
+ * keeping only the latest few of them.
+ */
+public class RecentlyVisitedList {
+    private static final int MAX_VISITED_LIST_LEN = 10;
+    private final ArrayList<Location> locations = new ArrayList<>();
+
+    /**
+     * Adds the given location to the list, dropping the oldest one if the list is full.
+     * @param location: location to be added
+     */
+    public void add(Location location) {
+        locations.add(location);
+        if (locations.size() == MAX_VISITED_LIST_LEN)
+            locations.remove(0);
+    }
+
+    /**
+     * Checks whether the given location is (recently) visited.
+     * @param location: the location to be checked
+     * @return true if it's in the list, false otherwise.
+     */
+    public boolean contains(Location location) {
+        return locations.contains(location);
+    }
+}
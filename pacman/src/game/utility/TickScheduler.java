@@ -0,0 +1,112 @@
+package game.utility;
+
+import java.util.ArrayList;
+
+/**
+ * A level-wide scheduler of delayed events, driven by the simulation cycles (ticks) rather than by the wall clock:
+ * a single timing wheel serves all the delayed events of a level (e.g. a TX5 waking up),
+ * with no thread of its own, so the events happen at the same cycle whether the level is headless or not,
+ * however fast it runs.
+ * Scheduling takes constant time, and each tick only looks at the events of one slot of the wheel;
+ * an event further away than a turn of the wheel stays in its slot for the remaining turns.
+ * The events due on the same tick run in the order they were scheduled.
+ * Not thread-safe: meant to be used from the simulation loop only.
+ */
+public class TickScheduler {
+    private static final int WHEEL_SIZE = 256; // a power of two
+    private static final int SLOT_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * An event scheduled on the wheel.
+     */
+    private static class Event {
+        private final Runnable task;
+        private int remainingTurns;
+
+        private Event(Runnable task, int remainingTurns) {
+            this.task = task;
+            this.remainingTurns = remainingTurns;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final ArrayList<Event>[] slots = new ArrayList[WHEEL_SIZE];
+    private int tick = 0;
+    private int pendingCount = 0;
+
+    /**
+     * Creates an empty scheduler, at tick 0.
+     */
+    public TickScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            slots[i] = new ArrayList<>();
+    }
+
+    /**
+     * Schedules a task to run after the given number of ticks.
+     * @param delay: the number of ticks to wait (at least 1): the task runs when the tick `getTick() + delay` ends
+     * @param task: the task to run
+     */
+    public void schedule(int delay, Runnable task) {
+        if (delay < 1)
+            throw new IllegalArgumentException("Invalid delay " + delay + ", must be at least 1 tick");
+        long dueTick = (long) tick + delay;
+        // the slot is next reached `delay - 1` ticks from now, after the remaining full turns
+        slots[(int) (dueTick & SLOT_MASK)].add(new Event(task, (delay - 1) / WHEEL_SIZE));
+        pendingCount++;
+    }
+
+    /**
+     * Ends the current tick: runs the tasks due on it, in the order they were scheduled.
+     * The tasks can schedule other tasks, which run on later ticks.
+     */
+    public void advance() {
+        tick++;
+        ArrayList<Event> slot = slots[tick & SLOT_MASK];
+        if (slot.isEmpty())
+            return;
+
+        // the events due are taken out before running any of them,
+        // so that the events they schedule are kept after the events still waiting
+        ArrayList<Event> due = new ArrayList<>();
+        int kept = 0;
+        for (Event event : slot) {
+            if (event.remainingTurns == 0) {
+                due.add(event);
+            } else {
+                event.remainingTurns--;
+                slot.set(kept++, event);
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+        pendingCount -= due.size();
+
+        for (Event event : due)
+            event.task.run();
+    }
+
+    /**
+     * Cancels all the pending tasks (e.g. when the level ends).
+     */
+    public void clear() {
+        for (ArrayList<Event> slot : slots)
+            slot.clear();
+        pendingCount = 0;
+    }
+
+    /**
+     * Gets the number of ticks ended so far.
+     * @return the current tick.
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Counts the tasks not run yet.
+     * @return the number of pending tasks.
+     */
+    public int countPending() {
+        return pendingCount;
+    }
+}
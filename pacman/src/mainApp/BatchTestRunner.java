@@ -0,0 +1,148 @@
+package mainApp;
+
+import checker.CheckerType;
+import checker.levelChecks.CompositeLevelChecker;
+import game.Game;
+import game.Maps.BinaryMapFile;
+import game.Maps.EditorMap;
+import game.Simulation.HeadlessLevel;
+import game.Simulation.SimulationResult;
+import game.utility.PropertiesLoader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Validates map packs in bulk: checks every level, then auto-plays it in a headless level,
+ * with all the maps run in parallel on a fork-join pool.
+ */
+public class BatchTestRunner {
+    public static final int MAX_CYCLES = 100_000;
+
+    private final AppComponentFactory factory = AppComponentFactory.getInstance();
+    private final Properties properties;
+
+    /**
+     * Constructs a batch runner, using the default properties file for isAuto, moves and seed.
+     */
+    public BatchTestRunner() {
+        this.properties = PropertiesLoader.loadPropertiesFile(Game.DEFAULT_PROPERTIES_PATH);
+    }
+
+    /**
+     * Runs all the maps in the given directories.
+     * @param dirs: the directories of the map files (or single map files)
+     * @return the results of each map, in the order of the directories then of the file names.
+     * @throws InterruptedException if interrupted while waiting for the runs.
+     */
+    public List<MapResult> run(List<String> dirs) throws InterruptedException {
+        ArrayList<File> files = new ArrayList<>();
+        for (String dir : dirs) {
+            File file = new File(dir);
+            File[] mapFiles = file.isDirectory() ? file.listFiles((d, name) -> name.endsWith(".xml") || name.endsWith("." + BinaryMapFile.EXTENSION)) : new File[]{file};
+            if (mapFiles == null)
+                continue;
+            List<File> sorted = new ArrayList<>(List.of(mapFiles));
+            sorted.sort(null);
+            files.addAll(sorted);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            ArrayList<Future<MapResult>> futures = new ArrayList<>();
+            for (File file : files)
+                futures.add(pool.submit(() -> runMap(file)));
+
+            ArrayList<MapResult> results = new ArrayList<>();
+            for (Future<MapResult> future : futures)
+                results.add(future.get());
+            return results;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks then auto-plays a single map.
+     * @param file: the map file
+     * @return the result for that map.
+     */
+    private MapResult runMap(File file) {
+        final long startTime = System.nanoTime();
+        try {
+            // each file is read once in batch mode, so there is nothing to cache
+            EditorMap map = new EditorMap(file);
+            // a checker per map, as checkers keep their errors
+            CompositeLevelChecker levelChecker = (CompositeLevelChecker) factory.getChecker(CheckerType.LEVEL_CHECKER);
+            ArrayList<String> errors = levelChecker.collectErrors(map);
+            if (!errors.isEmpty())
+                return new MapResult(file.getPath(), "INVALID", 0, System.nanoTime() - startTime, errors.get(0));
+
+            SimulationResult result = new HeadlessLevel(properties, map).run(MAX_CYCLES);
+            return new MapResult(file.getPath(), result.getOutcome().getTitle(), result.getCycles(),
+                    System.nanoTime() - startTime, "score " + result.getScore());
+        } catch (Exception e) {
+            return new MapResult(file.getPath(), "ERROR", 0, System.nanoTime() - startTime, e.toString());
+        }
+    }
+
+    /**
+     * Formats the results as a table, one map per row.
+     * @param results: the results to format
+     * @return the table, as a String.
+     */
+    public static String formatTable(List<MapResult> results) {
+        int pathWidth = "Map".length();
+        for (MapResult result : results)
+            pathWidth = Math.max(pathWidth, result.path.length());
+
+        final String rowFormat = "%-" + pathWidth + "s  %-9s  %8s  %10s  %s%n";
+        StringBuilder table = new StringBuilder(String.format(rowFormat, "Map", "Result", "Ticks", "Time (ms)", "Details"));
+        for (MapResult result : results) {
+            table.append(String.format(rowFormat, result.path, result.outcome, result.ticks,
+                    String.format("%.3f", result.elapsedNanos / 1e6), result.details));
+        }
+        return table.toString();
+    }
+
+    /**
+     * The result of checking and running a single map.
+     */
+    public static class MapResult {
+        private final String path;
+        private final String outcome;
+        private final int ticks;
+        private final long elapsedNanos;
+        private final String details;
+
+        /**
+         * Creates a map result.
+         * @param path: path to the map file
+         * @param outcome: the ending title, or why the map could not be run
+         * @param ticks: the number of simulation cycles run
+         * @param elapsedNanos: the wall-clock time taken (checks included), in nanoseconds
+         * @param details: the score, or the first error found.
+         */
+        public MapResult(String path, String outcome, int ticks, long elapsedNanos, String details) {
+            this.path = path;
+            this.outcome = outcome;
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+            this.details = details;
+        }
+
+        /**
+         * @return the ending title, or why the map could not be run.
+         */
+        public String getOutcome() {
+            return outcome;
+        }
+    }
+}
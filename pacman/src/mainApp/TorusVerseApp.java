@@ -4,6 +4,7 @@ import checker.CheckerType;
 import checker.levelChecks.CompositeLevelChecker;
 import checker.gameChecks.GameChecker;
 import game.Maps.EditorMap;
+import game.Maps.MapFileCache;
 import game.Maps.PacManMap;
 import org.jdom.JDOMException;
 
@@ -11,6 +12,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 public class TorusVerseApp {
 
@@ -20,7 +22,7 @@ public class TorusVerseApp {
      * @throws JDOMException
      */
     public TorusVerseApp() throws IOException, JDOMException {
-        this(null);
+        this((String) null);
     }
 
     /**
@@ -43,6 +45,26 @@ public class TorusVerseApp {
         }
     }
 
+    /**
+     * Constructs and runs the TorusVerse Application in batch mode:
+     * checks and auto-plays every map of the given directories, without any window.
+     * @param dirs: directories (or file paths) of the maps to be run.
+     * @throws InterruptedException if interrupted while running the maps.
+     */
+    public TorusVerseApp(List<String> dirs) throws InterruptedException {
+        runBatchMode(dirs);
+    }
+
+    /**
+     * Runs the batch mode of the app, printing a result table with a row per map.
+     * @param dirs: directories (or file paths) of the maps to be run.
+     * @throws InterruptedException if interrupted while running the maps.
+     */
+    private void runBatchMode(List<String> dirs) throws InterruptedException {
+        List<BatchTestRunner.MapResult> results = new BatchTestRunner().run(dirs);
+        System.out.print(BatchTestRunner.formatTable(results));
+    }
+
     /**
      * Runs the test mode of the app.
      * @param dir: directory to the map files on which the tester is to run.
@@ -60,7 +82,8 @@ public class TorusVerseApp {
             ArrayList<PacManMap> maps = new ArrayList<>(); // to store valid maps
             // start level checking
             for (String f : validFiles) {
-                EditorMap map = new EditorMap(dir + "/" + f);
+                // already parsed by the game check
+                EditorMap map = MapFileCache.getInstance().getEditorMap(dir + "/" + f);
 
                 CompositeLevelChecker compositeLevelChecker =
                         (CompositeLevelChecker) factory.getChecker(CheckerType.LEVEL_CHECKER);
@@ -6,6 +6,7 @@ import game.ActorType;
 import game.CharacterType;
 import game.Game;
 import game.Items.CellType;
+import game.Maps.BinaryMapFile;
 import game.Maps.EditorMap;
 import mapeditor.grid.*;
 import org.jdom.Document;
@@ -229,13 +230,24 @@ public class Controller implements ActionListener, GUIInformation {
 		JFileChooser chooser = new JFileChooser();
 		FileNameExtensionFilter filter = new FileNameExtensionFilter(
 				"xml files", "xml");
+		FileNameExtensionFilter binaryFilter = new FileNameExtensionFilter(
+				"binary map files", BinaryMapFile.EXTENSION);
+		chooser.addChoosableFileFilter(binaryFilter);
 		chooser.setFileFilter(filter);
 		File workingDirectory = new File(System.getProperty("user.dir"));
 		chooser.setCurrentDirectory(workingDirectory);
 
 		int returnVal = chooser.showSaveDialog(null);
 		try {
-			if (returnVal == JFileChooser.APPROVE_OPTION) {
+			if (returnVal == JFileChooser.APPROVE_OPTION
+					&& (chooser.getFileFilter() == binaryFilter || BinaryMapFile.isBinaryMapFile(chooser.getSelectedFile()))) {
+				File selectedFile = chooser.getSelectedFile();
+				if (!BinaryMapFile.isBinaryMapFile(selectedFile))
+					selectedFile = new File(selectedFile.getPath() + "." + BinaryMapFile.EXTENSION);
+				EditorMap map = new EditorMap(model.getMap(), selectedFile.getPath());
+				BinaryMapFile.write(map, selectedFile);
+				checkAndShow(map, "Saving map with failed check", "Warning");
+			} else if (returnVal == JFileChooser.APPROVE_OPTION) {
 
 				Element level = new Element("level");
 				Document doc = new Document(level);
@@ -275,6 +287,7 @@ public class Controller implements ActionListener, GUIInformation {
 
 	/**
 	 * Load the map at path of `currentMap`, or ask user to select one if the argument is null;
+	 * the map can be an xml or a binary map file.
 	 */
 	private void loadFile() throws IOException, JDOMException {
 
@@ -1,12 +1,10 @@
 package mapeditor.editor;
 
-import javax.imageio.ImageIO;
+import game.utility.ImageCache;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-import java.awt.image.WritableRaster;
-import java.io.File;
 import java.io.IOException;
 
 /**
@@ -25,7 +23,7 @@ public class Tile {
 	private char character;
 
 	/**
-	 * The image that will be used in the editor.
+	 * The image that will be used in the editor (shared through the ImageCache).
 	 */
 	private BufferedImage image;
 	private String filePath;
@@ -38,7 +36,7 @@ public class Tile {
 	public Tile(final String filePath, final char character) {
 		try {
 			this.filePath = filePath;
-			image = ImageIO.read(new File(filePath));
+			image = ImageCache.getInstance().getImage(filePath);
 		} catch (IOException e) {
 			e.printStackTrace();
 			System.err.println(e.getMessage());
@@ -55,10 +53,10 @@ public class Tile {
 
 	/**
 	 * Get the tile as a image.
-	 * @return Image The tile icon.
+	 * @return Image The tile icon, shared (only to be drawn).
 	 */
 	public Image getImage() {
-		return deepCopy(image);
+		return image;
 	}
 
 
@@ -77,11 +75,4 @@ public class Tile {
 	public char getCharacter() {
 		return character;
 	}
-	
-	private static BufferedImage deepCopy(BufferedImage bi) {
-		ColorModel cm = bi.getColorModel();
-		boolean isAlphaPremultiplied = cm.isAlphaPremultiplied();
-		WritableRaster raster = bi.copyData(null);
-		return new BufferedImage(cm, raster, isAlphaPremultiplied, null);
-	}
 }